@@ -0,0 +1,113 @@
+package vn.tdtu.shop.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.service.dictionary.DimensionDictionary;
+import vn.tdtu.shop.util.constant.IdSequence;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Chạy sau khi Hibernate cập nhật schema (phụ thuộc EntityManagerFactory) và trước khi nhận request
+@Component
+public class DataMigration {
+
+    private static final List<String> ID_TABLES = List.of(
+            "users", "carts", "cart_items", "products", "images", "orders", "order_items", "password_reset_tokens");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogDictionary catalogDictionary;
+
+    // Chỉ bật sau khi đã kiểm tra backfill category_id / brand_id trên dữ liệu thật
+    @Value("${product.migration.drop-legacy-columns:false}")
+    private boolean dropLegacyColumns;
+
+    public DataMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+            CatalogDictionary catalogDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogDictionary = catalogDictionary;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        seedIdSequences();
+        backfillPrimaryImageUrls();
+        encodeLegacyDimension("category", "category_id", "categories", catalogDictionary::encodeCategory);
+        encodeLegacyDimension("brand", "brand_id", "brands", catalogDictionary::encodeBrand);
+    }
+
+    // Các bảng cũ sinh id bằng AUTO_INCREMENT: đặt next_val của generator bảng lên trên MAX(id) hiện có.
+    // Optimizer pooled coi next_val là đầu trên của khối, nên cộng thêm ALLOCATION_SIZE để khối đầu bắt đầu từ MAX(id) + 1.
+    // GREATEST giữ nguyên giá trị đã cấp khi khởi động lại.
+    private void seedIdSequences() {
+        for (String table : ID_TABLES) {
+            jdbcTemplate.update("INSERT INTO " + IdSequence.TABLE + " (" + IdSequence.NAME_COLUMN + ", "
+                    + IdSequence.VALUE_COLUMN + ") SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + table
+                    + " ON DUPLICATE KEY UPDATE " + IdSequence.VALUE_COLUMN + " = GREATEST("
+                    + IdSequence.VALUE_COLUMN + ", VALUES(" + IdSequence.VALUE_COLUMN + "))",
+                    table, IdSequence.ALLOCATION_SIZE);
+        }
+    }
+
+    // Cột primary_image_url mới thêm: điền ảnh có id nhỏ nhất cho sản phẩm cũ. Chỉ chạm các dòng còn null nên chạy lại không tốn gì.
+    private void backfillPrimaryImageUrls() {
+        int updated = jdbcTemplate.update("UPDATE products p SET p.primary_image_url = "
+                + "(SELECT i.url FROM images i WHERE i.product_id = p.id ORDER BY i.sort_order, i.id LIMIT 1) "
+                + "WHERE p.primary_image_url IS NULL AND EXISTS (SELECT 1 FROM images i2 WHERE i2.product_id = p.id)");
+        if (updated > 0) {
+            System.out.println(">>> Backfill primary_image_url: " + updated + " products");
+        }
+    }
+
+    // Chuyển cột chuỗi cũ (products.category / products.brand) sang id từ điển: ghi các giá trị khác nhau vào bảng từ điển
+    // rồi gán id bằng một câu UPDATE JOIN theo tên. Cột cũ được giữ lại (chỉ bỏ NOT NULL để INSERT mới không cần ghi nó)
+    // cho đến khi backfill đã được kiểm tra; xóa cột là bước riêng, bật bằng product.migration.drop-legacy-columns.
+    private void encodeLegacyDimension(String legacyColumn, String idColumn, String dictionaryTable,
+            Function<String, Integer> encoder) {
+        List<Map<String, Object>> column = jdbcTemplate.queryForList("SELECT column_type, is_nullable "
+                + "FROM information_schema.columns "
+                + "WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = ?", legacyColumn);
+        if (column.isEmpty()) {
+            return;
+        }
+        if ("NO".equalsIgnoreCase(String.valueOf(column.get(0).get("is_nullable")))) {
+            jdbcTemplate.execute("ALTER TABLE products MODIFY " + legacyColumn + " "
+                    + column.get(0).get("column_type") + " NULL");
+        }
+        // Chỉ các dòng chưa có id: khởi động lại không quét lại cả bảng
+        String pending = "(p." + idColumn + " IS NULL OR p." + idColumn + " = " + DimensionDictionary.NO_MATCH + ")";
+        List<String> names = jdbcTemplate.queryForList("SELECT DISTINCT TRIM(p." + legacyColumn + ") FROM products p "
+                + "WHERE " + pending + " AND p." + legacyColumn + " IS NOT NULL AND TRIM(p." + legacyColumn + ") <> ''",
+                String.class);
+        if (!names.isEmpty()) {
+            names.forEach(encoder::apply);
+            int updated = jdbcTemplate.update("UPDATE products p JOIN " + dictionaryTable + " d ON d.name = TRIM(p."
+                    + legacyColumn + ") SET p." + idColumn + " = d.id WHERE " + pending);
+            System.out.println(">>> Encode products." + legacyColumn + ": " + names.size() + " values, "
+                    + updated + " products");
+        }
+        verifyEncoded(legacyColumn, idColumn);
+        if (dropLegacyColumns) {
+            jdbcTemplate.execute("ALTER TABLE products DROP COLUMN " + legacyColumn);
+            System.out.println(">>> Dropped legacy column products." + legacyColumn);
+        }
+    }
+
+    // Sản phẩm còn id = 0 / NULL sẽ mất danh mục / thương hiệu khi đọc qua từ điển: dừng khởi động thay vì chạy tiếp
+    // với dữ liệu hỏng. Thường là giá trị cũ rỗng, cần sửa tay trong cột cũ rồi khởi động lại.
+    private void verifyEncoded(String legacyColumn, String idColumn) {
+        List<Long> missing = jdbcTemplate.queryForList("SELECT id FROM products WHERE " + idColumn + " IS NULL OR "
+                + idColumn + " = " + DimensionDictionary.NO_MATCH + " ORDER BY id LIMIT 20", Long.class);
+        if (!missing.isEmpty()) {
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE " + idColumn + " IS NULL OR "
+                    + idColumn + " = " + DimensionDictionary.NO_MATCH, Long.class);
+            throw new IllegalStateException("Backfill products." + idColumn + " chưa xong: " + total
+                    + " sản phẩm chưa có id (products." + legacyColumn + " rỗng hoặc không khớp), ví dụ id " + missing);
+        }
+    }
+}
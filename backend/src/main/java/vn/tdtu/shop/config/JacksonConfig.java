@@ -0,0 +1,22 @@
+package vn.tdtu.shop.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import vn.tdtu.shop.util.FieldSelection;
+import vn.tdtu.shop.util.FieldSelectionFilter;
+
+@Configuration
+public class JacksonConfig {
+
+    // Đăng ký cho ObjectMapper dùng chung, nên mọi chỗ serialize DTO có @JsonFilter đều tìm thấy filter
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, new FieldSelectionFilter())
+                .setFailOnUnknownId(false));
+    }
+}
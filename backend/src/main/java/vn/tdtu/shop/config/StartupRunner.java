@@ -8,6 +8,7 @@ import vn.tdtu.shop.domain.Image;
 import vn.tdtu.shop.domain.Product;
 import vn.tdtu.shop.domain.User;
 import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
 import vn.tdtu.shop.service.UserService;
 import vn.tdtu.shop.util.constant.GenderEnum;
 import vn.tdtu.shop.util.constant.RoleEnum;
@@ -25,6 +26,7 @@ public class StartupRunner implements CommandLineRunner {
     private final PasswordEncoder passwordEncoder;
     private final UserService userService;
     private final ProductRepository productRepository;
+    private final CatalogDictionary catalogDictionary;
 
     @Override
     public void run(String... args) {
@@ -93,8 +95,8 @@ public class StartupRunner implements CommandLineRunner {
                 Product product = new Product();
                 product.setName("Product " + i);
                 product.setPrice(BigDecimal.valueOf(100 + random.nextInt(900)));
-                product.setBrand(brands[random.nextInt(brands.length)]);
-                product.setCategory(categories[random.nextInt(categories.length)]);
+                product.setBrandId(catalogDictionary.encodeBrand(brands[random.nextInt(brands.length)]));
+                product.setCategoryId(catalogDictionary.encodeCategory(categories[random.nextInt(categories.length)]));
                 product.setViews((long) random.nextInt(1000));
                 product.setSoldQuantity((long) random.nextInt(100));
                 product.setShortDescription("Mô tả ngắn cho sản phẩm " + i);
@@ -119,6 +121,7 @@ public class StartupRunner implements CommandLineRunner {
                     images.add(image);
                 }
                 product.setImages(images);
+                product.setPrimaryImageUrl(images.get(0).getUrl());
 
                 products.add(product);
             }
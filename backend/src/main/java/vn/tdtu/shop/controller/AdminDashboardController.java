@@ -7,7 +7,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import vn.tdtu.shop.service.AdminDashboardService;
+import vn.tdtu.shop.service.ProductCacheService;
+import vn.tdtu.shop.service.ProductResponseCache;
 import vn.tdtu.shop.util.response.AdminDashboardDTO;
+import vn.tdtu.shop.util.response.CacheStatsDTO;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -15,6 +21,8 @@ import vn.tdtu.shop.util.response.AdminDashboardDTO;
 public class AdminDashboardController {
 
     private final AdminDashboardService adminDashboardService;
+    private final ProductCacheService productCacheService;
+    private final ProductResponseCache productResponseCache;
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('ADMIN')")
@@ -22,6 +30,14 @@ public class AdminDashboardController {
         return ResponseEntity.ok(retrieveDashboardData());
     }
 
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDTO>> fetchCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>(productCacheService.getStats());
+        stats.addAll(productResponseCache.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
     private AdminDashboardDTO retrieveDashboardData() {
         return adminDashboardService.fetchDashboardData();
     }
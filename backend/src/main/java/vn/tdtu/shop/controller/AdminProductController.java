@@ -0,0 +1,96 @@
+package vn.tdtu.shop.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vn.tdtu.shop.service.ProductExportService;
+import vn.tdtu.shop.service.ProductImportService;
+import vn.tdtu.shop.service.ProductService;
+import vn.tdtu.shop.util.error.InputInvalidException;
+import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.ProductImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+public class AdminProductController {
+
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductService productService;
+
+    @Value("${product.export.timeout-ms:600000}")
+    private long exportTimeoutMs;
+
+    // Danh sách cho bảng quản trị, cùng bộ lọc với /api/products/search nhưng trả ProductDTO đầy đủ
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<ProductDTO>> fetchProductsForAdmin(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            Pageable pageable) {
+        return ResponseEntity.ok(productService.searchProductsForAdmin(category, brand, name, minPrice, maxPrice, pageable));
+    }
+
+    // Body gửi thẳng file (không multipart) để đọc dạng stream:
+    // curl -X POST -H "Content-Type: text/csv" --data-binary @products.csv .../api/admin/products/import
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson", "application/jsonl" })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException, InputInvalidException {
+        return ResponseEntity.ok(productImportService.importProducts(body, contentType));
+    }
+
+    // Ghi trực tiếp ra response trong lúc đọc DB, không dựng cả catalog trong heap:
+    // curl -H "Authorization: Bearer ..." ".../api/admin/products/export?format=csv&gzip=true" -o products.csv.gz
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "jsonl") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) throws InputInvalidException {
+        ProductExportService.Format exportFormat = ProductExportService.Format.parse(format);
+        // Timeout async chỉ nới cho request này; phải đặt trước khi StreamingResponseBody bắt đầu xử lý async
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        String filename = "products." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                productExportService.export(gzipOut, exportFormat);
+                gzipOut.finish();
+            } else {
+                productExportService.export(out, exportFormat);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
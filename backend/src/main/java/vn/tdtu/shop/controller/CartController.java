@@ -6,6 +6,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import vn.tdtu.shop.service.CartService;
+import vn.tdtu.shop.util.FieldSelection;
+import vn.tdtu.shop.util.error.InputInvalidException;
 import vn.tdtu.shop.util.request.AddToCartRequest;
 import vn.tdtu.shop.util.request.CartDTO;
 import vn.tdtu.shop.util.request.UpdateCartItemRequest;
@@ -19,8 +21,9 @@ public class CartController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<CartDTO> fetchCart() {
-        return ResponseEntity.ok(retrieveCart());
+    public ResponseEntity<CartDTO> fetchCart(@RequestParam(required = false) String fields)
+            throws InputInvalidException {
+        return ResponseEntity.ok(retrieveCart(FieldSelection.parse(fields, CartDTO.class).bind()));
     }
 
     @PostMapping("/add")
@@ -43,8 +46,8 @@ public class CartController {
         return ResponseEntity.ok(processRemoveCartItem(cartItemId));
     }
 
-    private CartDTO retrieveCart() {
-        return cartService.fetchCart();
+    private CartDTO retrieveCart(FieldSelection fields) {
+        return cartService.fetchCart(fields);
     }
 
     private CartDTO processAddToCart(AddToCartRequest request) {
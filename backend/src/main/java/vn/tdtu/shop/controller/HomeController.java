@@ -0,0 +1,32 @@
+package vn.tdtu.shop.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import vn.tdtu.shop.service.HomePageService;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/home")
+@RequiredArgsConstructor
+public class HomeController {
+
+    private final HomePageService homePageService;
+
+    // Byte đã serialize sẵn, ETag theo lần build nên client tải lại khi chưa đổi chỉ tốn 304
+    @GetMapping
+    public void fetchHome(ServletWebRequest request, HttpServletResponse response) throws IOException {
+        HomePageService.HomePayload home = homePageService.getHome();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (request.checkNotModified(home.getEtag())) {
+            return;
+        }
+        home.getResponse().writeTo(request.getHeader(HttpHeaders.ACCEPT_ENCODING), response);
+    }
+}
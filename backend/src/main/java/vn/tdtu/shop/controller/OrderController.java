@@ -10,7 +10,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import vn.tdtu.shop.service.OrderService;
+import vn.tdtu.shop.util.FieldSelection;
 import vn.tdtu.shop.util.constant.OrderStatus;
+import vn.tdtu.shop.util.error.InputInvalidException;
 import vn.tdtu.shop.util.request.CreateOrderRequest;
 import vn.tdtu.shop.util.request.OrderDTO;
 import vn.tdtu.shop.util.request.UpdateOrderStatusRequest;
@@ -30,14 +32,16 @@ public class OrderController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<Page<OrderDTO>> fetchUserOrders(Pageable pageable) {
-        return ResponseEntity.ok(orderService.getUserOrders(pageable));
+    public ResponseEntity<Page<OrderDTO>> fetchUserOrders(Pageable pageable,
+            @RequestParam(required = false) String fields) throws InputInvalidException {
+        return ResponseEntity.ok(orderService.getUserOrders(pageable, FieldSelection.parse(fields, OrderDTO.class).bind()));
     }
 
     @GetMapping("/{orderId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<OrderDTO> fetchOrderById(@PathVariable Long orderId) {
-        return ResponseEntity.ok(orderService.getOrderById(orderId));
+    public ResponseEntity<OrderDTO> fetchOrderById(@PathVariable Long orderId,
+            @RequestParam(required = false) String fields) throws InputInvalidException {
+        return ResponseEntity.ok(orderService.getOrderById(orderId, FieldSelection.parse(fields, OrderDTO.class).bind()));
     }
 
     @PutMapping("/{orderId}/status")
@@ -60,7 +64,9 @@ public class OrderController {
             @RequestParam(required = false) OrderStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) java.time.Instant startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) java.time.Instant endDate,
-            @RequestParam(required = false) String search) {
-        return ResponseEntity.ok(orderService.getAllOrders(pageable, status, startDate, endDate, search));
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String fields) throws InputInvalidException {
+        return ResponseEntity.ok(orderService.getAllOrders(pageable, status, startDate, endDate, search,
+                FieldSelection.parse(fields, OrderDTO.class).bind()));
     }
 }
\ No newline at end of file
@@ -1,17 +1,41 @@
 package vn.tdtu.shop.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import vn.tdtu.shop.service.CatalogSyncService;
+import vn.tdtu.shop.service.ProductFieldLoader;
+import vn.tdtu.shop.service.ProductResponseCache;
 import vn.tdtu.shop.service.ProductService;
+import vn.tdtu.shop.service.ProductValidatorIndex;
+import vn.tdtu.shop.service.search.ProductSuggester;
+import vn.tdtu.shop.service.trending.TrendingProductTracker;
+import vn.tdtu.shop.util.FieldSelection;
+import vn.tdtu.shop.util.error.InputInvalidException;
 import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.CatalogChangesDTO;
+import vn.tdtu.shop.util.response.ProductBatchDTO;
+import vn.tdtu.shop.util.response.CursorPageDTO;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
+import vn.tdtu.shop.util.response.SuggestionDTO;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -19,15 +43,133 @@ import java.math.BigDecimal;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductValidatorIndex productValidatorIndex;
+    private final TrendingProductTracker trendingProductTracker;
+    private final ProductResponseCache productResponseCache;
+    private final ProductSuggester productSuggester;
+    private final CatalogSyncService catalogSyncService;
+    private final ProductFieldLoader productFieldLoader;
 
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> fetchAllProducts(Pageable pageable) {
+    public ResponseEntity<Page<ProductSummaryDTO>> fetchAllProducts(Pageable pageable, ServletWebRequest request,
+            HttpServletResponse response) throws IOException {
+        if (isNotModified(request, productValidatorIndex.forCatalog())) {
+            return null;
+        }
+        // Trang đầu được gọi nhiều nhất, trả thẳng byte đã serialize
+        if (pageable.getPageNumber() == 0) {
+            writeEncoded(request, response, productResponseCache.getPage(pageable, () -> productService.getAllProducts(pageable)));
+            return null;
+        }
         return ResponseEntity.ok(productService.getAllProducts(pageable));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> scrollAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            Sort sort,
+            ServletWebRequest request) throws InputInvalidException {
+        if (isNotModified(request, productValidatorIndex.forCatalog())) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.scrollProducts(null, null, null, null, null, sort, cursor, size, withTotal));
+    }
+
+    // Toàn bộ catalog cho client khởi tạo store, JSON đã gzip sẵn; ETag theo version nên tải lại khi chưa đổi chỉ tốn 304
+    @GetMapping("/snapshot")
+    public void fetchCatalogSnapshot(ServletWebRequest request, HttpServletResponse response) throws IOException {
+        CatalogSyncService.Snapshot snapshot = catalogSyncService.getSnapshot();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(snapshot.getGzip().length);
+            response.getOutputStream().write(snapshot.getGzip());
+            return;
+        }
+        // Hiếm: client không nhận gzip thì giải nén khi ghi, không giữ thêm bản chưa nén trong bộ nhớ
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    // Delta từ version của snapshot / lần đồng bộ trước
+    @GetMapping("/changes")
+    public ResponseEntity<CatalogChangesDTO> fetchCatalogChanges(@RequestParam long since) {
+        return ResponseEntity.ok(catalogSyncService.getChanges(since));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<ProductSummaryDTO>> fetchTrendingProducts(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingProductTracker.getTrending(limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggestProducts(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggester.suggest(query, limit));
+    }
+
+    // Gợi ý cho trang giỏ hàng: ids là các sản phẩm đang có trong giỏ
+    @GetMapping("/bought-together")
+    public ResponseEntity<List<ProductSummaryDTO>> fetchBoughtTogetherForProducts(
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.getFrequentlyBoughtTogether(ids, limit));
+    }
+
+    // Nhiều sản phẩm trong một request cho danh sách đã xem, wishlist, gợi ý...: ids=1,2,3 hoặc ids=1&ids=2
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchDTO> fetchProductsByIds(@RequestParam List<Long> ids)
+            throws InputInvalidException {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> fetchProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    // Trả null khi đã tự ghi body (304 hoặc byte trong cache): có tham số HttpServletResponse nên Spring
+    // coi request đã được xử lý, không ghi thêm body
+    public ResponseEntity<ProductDTO> fetchProductById(@PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request, HttpServletResponse response) throws IOException, InputInvalidException {
+        FieldSelection selection = FieldSelection.parse(fields, ProductDTO.class);
+        ProductValidatorIndex.Validator validator = productValidatorIndex.forProduct(id);
+        // Có validator nghĩa là sản phẩm tồn tại: ghi lượt xem trước, để lần xem lại trả 304 vẫn được đếm
+        if (validator != null) {
+            productService.recordView(id);
+            if (isNotModified(request, validator)) {
+                return null;
+            }
+        }
+        if (!selection.isAll()) {
+            // Không dùng byte đã cache (luôn đủ field), đọc đúng các cột được yêu cầu
+            ProductDTO product = productFieldLoader.load(id, selection.bind());
+            if (validator == null) {
+                productService.recordView(id);
+            }
+            return ResponseEntity.ok(product);
+        }
+        writeEncoded(request, response, productResponseCache.getProduct(id, () -> productService.findProductById(id)));
+        if (validator == null) {
+            productService.recordView(id);
+        }
+        return null;
+    }
+
+    @GetMapping("/{id}/bought-together")
+    public ResponseEntity<List<ProductSummaryDTO>> fetchBoughtTogether(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.getFrequentlyBoughtTogether(id, limit));
     }
 
     @PostMapping
@@ -50,13 +192,55 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDTO>> searchProductsByCriteria(
+    public ResponseEntity<?> searchProductsByCriteria(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String brand,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
-            Pageable pageable) {
+            @RequestParam(defaultValue = "false") boolean facets,
+            Pageable pageable,
+            ServletWebRequest request) {
+        if (isNotModified(request, productValidatorIndex.forCatalog())) {
+            return null;
+        }
+        if (facets) {
+            return ResponseEntity.ok(productService.searchProductsWithFacets(category, brand, name, minPrice, maxPrice, pageable));
+        }
         return ResponseEntity.ok(productService.searchProducts(category, brand, name, minPrice, maxPrice, pageable));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> scrollProductsByCriteria(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            Sort sort,
+            ServletWebRequest request) throws InputInvalidException {
+        if (isNotModified(request, productValidatorIndex.forCatalog())) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.scrollProducts(category, brand, name, minPrice, maxPrice, sort, cursor, size, withTotal));
+    }
+
+    // Đặt ETag / Last-Modified cho response; true nếu validator của client còn hợp lệ (đã set 304)
+    private boolean isNotModified(ServletWebRequest request, ProductValidatorIndex.Validator validator) {
+        if (validator == null) {
+            return false;
+        }
+        // no-cache: client được lưu nhưng phải hỏi lại server, ghi đè no-store mặc định của Spring Security
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified(validator.getEtag(), validator.getLastModified());
+    }
+
+    // Ghi response đã mã hóa sẵn ra output stream; dùng bản gzip nếu client chấp nhận
+    private void writeEncoded(ServletWebRequest request, HttpServletResponse response,
+            ProductResponseCache.EncodedResponse encoded) throws IOException {
+        encoded.writeTo(request.getHeader(HttpHeaders.ACCEPT_ENCODING), response);
+    }
+}
@@ -0,0 +1,23 @@
+package vn.tdtu.shop.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
+
+// Từ điển thương hiệu, cùng cách mã hóa với Category
+@Entity
+@Table(name = "brands")
+@Getter
+@Setter
+public class Brand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "brands_id")
+    @TableGenerator(name = "brands_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "brands", allocationSize = 1)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+}
@@ -3,6 +3,7 @@ package vn.tdtu.shop.domain;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,7 +15,9 @@ import java.util.List;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "carts_id")
+    @TableGenerator(name = "carts_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "carts", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -3,6 +3,7 @@ package vn.tdtu.shop.domain;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
 
 @Entity
 @Table(name = "cart_items")
@@ -11,7 +12,9 @@ import lombok.Setter;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_items_id")
+    @TableGenerator(name = "cart_items_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "cart_items", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
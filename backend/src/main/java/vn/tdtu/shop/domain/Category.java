@@ -0,0 +1,24 @@
+package vn.tdtu.shop.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
+
+// Bảng từ điển: products chỉ lưu id nhỏ, tên được giải mã bởi CatalogDictionary
+@Entity
+@Table(name = "categories")
+@Getter
+@Setter
+public class Category {
+
+    // allocationSize = 1 để id liền nhau, CatalogDictionary dùng id làm chỉ số mảng khi giải mã
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categories_id")
+    @TableGenerator(name = "categories_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "categories", allocationSize = 1)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
 
 @Entity
 @Table(name = "images")
@@ -12,12 +13,19 @@ import lombok.Setter;
 public class Image {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "images_id")
+    @TableGenerator(name = "images_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "images", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
     private String url;
 
+    // Thứ tự hiển thị, có khoảng cách giữa các ảnh để chèn / đổi chỗ không phải ghi lại các dòng khác.
+    // Dòng cũ đều là 0, khi đó thứ tự theo id như trước
+    @Column(nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int sortOrder;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     @JsonBackReference
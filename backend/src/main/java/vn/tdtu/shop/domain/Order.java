@@ -17,9 +17,12 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import vn.tdtu.shop.util.constant.IdSequence;
 import vn.tdtu.shop.util.constant.OrderStatus;
 
 @Entity
@@ -29,7 +32,9 @@ import vn.tdtu.shop.util.constant.OrderStatus;
 @AllArgsConstructor
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(name = "orders_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "orders", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -54,7 +59,9 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal totalAmount;
 
+    // Trang đơn hàng nạp items của tối đa 50 đơn bằng một câu IN thay vì một câu cho mỗi đơn
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<OrderItem> items = new ArrayList<>();
 
     @PrePersist
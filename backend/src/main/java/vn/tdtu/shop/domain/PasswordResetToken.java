@@ -3,6 +3,7 @@ package vn.tdtu.shop.domain;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
 
 import java.time.Instant;
 
@@ -13,7 +14,9 @@ import java.time.Instant;
 public class PasswordResetToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "password_reset_tokens_id")
+    @TableGenerator(name = "password_reset_tokens_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "password_reset_tokens", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import vn.tdtu.shop.util.constant.IdSequence;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -12,13 +14,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_popularity", columnList = "popularity"),
+        @Index(name = "idx_products_category_id", columnList = "categoryId"),
+        @Index(name = "idx_products_brand_id", columnList = "brandId"),
+        @Index(name = "idx_products_deleted_at", columnList = "deletedAt"),
+        @Index(name = "idx_products_created_at", columnList = "createdAt"),
+        @Index(name = "idx_products_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
+@BatchSize(size = 50)
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "products_id")
+    @TableGenerator(name = "products_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "products", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -28,26 +40,40 @@ public class Product {
     @PositiveOrZero(message = "Price must be greater than or equal to 0")
     private BigDecimal price;
 
+    // Id trong bảng brands / categories, CatalogDictionary mã hóa và giải mã tên
     @Column(nullable = false)
-    private String brand;
+    private Integer brandId;
 
     @Column(nullable = false)
-    private String category;
+    private Integer categoryId;
 
-    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    // Chỉ ProductViewCounter tăng cột này (UPDATE views = views + ?); không có trong UPDATE của Hibernate,
+    // nếu không mỗi lần sửa sản phẩm / đặt hàng sẽ ghi đè lượt xem đã flush sau khi entity được đọc
+    @Column(nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
     private Long views;
 
     @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
     private Long soldQuantity;
 
+    // Điểm trending (lượt xem + đơn hàng gần đây, có suy giảm theo thời gian), ghi định kỳ bởi TrendingProductTracker
+    // Cùng lý do với views: chỉ TrendingProductTracker ghi
+    @Column(nullable = false, updatable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    private Double popularity = 0.0;
+
     @Column
     private String shortDescription;
 
     @Column(columnDefinition = "TEXT")
     private String detailedDescription;
 
+    // Bản sao url của ảnh đầu tiên, giữ đồng bộ trong ProductService.syncImages.
+    // Giỏ hàng, đơn hàng và danh sách tóm tắt chỉ cần ảnh này nên không phải nạp collection images.
+    @Column(length = 1024)
+    private String primaryImageUrl;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonManagedReference
+    @OrderBy("sortOrder ASC, id ASC")
     private List<Image> images = new ArrayList<>();
 
     @Column(nullable = false)
@@ -56,6 +82,10 @@ public class Product {
     @Column
     private Instant updatedAt;
 
+    // Xóa mềm: khác null là sản phẩm đã ẩn khỏi mọi truy vấn đọc, chờ ProductPurger xóa hẳn
+    @Column
+    private Instant deletedAt;
+
     @PrePersist
     private void setCreatedAt() {
         this.createdAt = Instant.now();
@@ -0,0 +1,38 @@
+package vn.tdtu.shop.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import vn.tdtu.shop.util.constant.IdSequence;
+
+import java.time.Instant;
+
+// Nhật ký xóa sản phẩm cho /api/products/changes: dòng products bị ProductPurger xóa hẳn nhưng client vẫn
+// cần biết để gỡ khỏi store. Giữ trong product.sync.deletion-retention-days rồi dọn bởi CatalogSyncService.
+@Entity
+@Table(name = "product_deletions", indexes = {
+        @Index(name = "idx_product_deletions_deleted_at", columnList = "deletedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_deletions_id")
+    @TableGenerator(name = "product_deletions_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "product_deletions", allocationSize = IdSequence.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public ProductDeletion(Long productId, Instant deletedAt) {
+        this.productId = productId;
+        this.deletedAt = deletedAt;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.Setter;
 import vn.tdtu.shop.util.SecurityUtil;
 import vn.tdtu.shop.util.constant.GenderEnum;
+import vn.tdtu.shop.util.constant.IdSequence;
 import vn.tdtu.shop.util.constant.RoleEnum;
 
 import java.time.Instant;
@@ -18,7 +19,9 @@ import java.time.Instant;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+            valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "users", allocationSize = IdSequence.ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Name is required")
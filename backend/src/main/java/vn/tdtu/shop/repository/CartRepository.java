@@ -2,6 +2,7 @@ package vn.tdtu.shop.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,7 +10,12 @@ import org.springframework.data.jpa.repository.Query;
 import vn.tdtu.shop.domain.Cart;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    // Giỏ hàng luôn hiển thị kèm sản phẩm: nạp cart, items và product trong một câu JOIN
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
     Optional<Cart> findByUserId(Long userId);
+    // Chỉ dòng carts, cho request fields= không lấy items
+    @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
+    Optional<Cart> findWithoutItemsByUserId(Long userId);
     @Modifying
     @Query("DELETE FROM Cart c WHERE c.user.id = :userId")
     void deleteByUserId(Long userId);
@@ -1,8 +1,21 @@
 package vn.tdtu.shop.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import vn.tdtu.shop.domain.Image;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
+
+    // Chỉ url, cùng thứ tự với @OrderBy của Product.images
+    @Query("SELECT i.url FROM Image i WHERE i.product.id = :productId ORDER BY i.sortOrder ASC, i.id ASC")
+    List<String> findUrlsByProductId(@Param("productId") Long productId);
+
+    // Ảnh của nhiều sản phẩm trong một query; mỗi dòng là (productId, url)
+    @Query("SELECT i.product.id, i.url FROM Image i WHERE i.product.id IN :productIds ORDER BY i.sortOrder ASC, i.id ASC")
+    List<Object[]> findUrlsByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
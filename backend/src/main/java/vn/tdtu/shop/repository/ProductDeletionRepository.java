@@ -0,0 +1,22 @@
+package vn.tdtu.shop.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import vn.tdtu.shop.domain.ProductDeletion;
+
+public interface ProductDeletionRepository extends JpaRepository<ProductDeletion, Long> {
+
+    @Query("SELECT DISTINCT d.productId FROM ProductDeletion d WHERE d.deletedAt > :since")
+    List<Long> findProductIdsDeletedAfter(@Param("since") Instant since, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ProductDeletion d WHERE d.deletedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
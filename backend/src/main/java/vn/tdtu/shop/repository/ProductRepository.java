@@ -1,33 +1,105 @@
 package vn.tdtu.shop.repository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import vn.tdtu.shop.domain.Product;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Page<Product> findByCategory(String category, Pageable pageable);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+    // Ảnh đầu tiên đọc từ cột primaryImageUrl, không cần join hay subquery sang images.
+    // Tên thương hiệu / danh mục lấy qua join khóa chính vào bảng brands / categories (vài chục dòng, luôn nằm trong buffer pool).
+    String SUMMARY_SELECT = "SELECT new vn.tdtu.shop.util.response.ProductSummaryDTO(" +
+            "p.id, p.name, p.price, b.name, c.name, p.primaryImageUrl) " +
+            "FROM Product p LEFT JOIN Brand b ON b.id = p.brandId LEFT JOIN Category c ON c.id = p.categoryId";
 
-    Page<Product> findByBrand(String brand, Pageable pageable);
+    // Sản phẩm đã xóa mềm không xuất hiện ở bất kỳ truy vấn đọc nào
+    String NOT_DELETED = " WHERE p.deletedAt IS NULL";
+
+    String CRITERIA_WHERE = NOT_DELETED + " AND " +
+            "(:categoryId IS NULL OR p.categoryId = :categoryId) AND " +
+            "(:brandId IS NULL OR p.brandId = :brandId) AND " +
+            "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice)";
+
+    Page<Product> findByCategoryId(Integer categoryId, Pageable pageable);
+
+    Page<Product> findByBrandId(Integer brandId, Pageable pageable);
 
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE " +
-            "(:category IS NULL OR p.category = :category) AND " +
-            "(:brand IS NULL OR p.brand = :brand) AND " +
+    @Query("SELECT p FROM Product p WHERE p.deletedAt IS NULL AND " +
+            "(:categoryId IS NULL OR p.categoryId = :categoryId) AND " +
+            "(:brandId IS NULL OR p.brandId = :brandId) AND " +
             "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
             "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
             "(:maxPrice IS NULL OR p.price <= :maxPrice)")
     Page<Product> findByMultipleCriteria(
-            @Param("category") String category,
-            @Param("brand") String brand,
+            @Param("categoryId") Integer categoryId,
+            @Param("brandId") Integer brandId,
+            @Param("name") String name,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + NOT_DELETED, countQuery = "SELECT COUNT(p) FROM Product p" + NOT_DELETED)
+    Page<ProductSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + CRITERIA_WHERE, countQuery = "SELECT COUNT(p) FROM Product p" + CRITERIA_WHERE)
+    Page<ProductSummaryDTO> findSummariesByMultipleCriteria(
+            @Param("categoryId") Integer categoryId,
+            @Param("brandId") Integer brandId,
             @Param("name") String name,
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
             Pageable pageable);
+
+    // Top N theo sort của pageable, không kèm count query (trang chủ)
+    @Query(SUMMARY_SELECT + NOT_DELETED)
+    List<ProductSummaryDTO> findTopSummaries(Pageable pageable);
+
+    @Query("SELECT p.categoryId, COUNT(p) FROM Product p" + NOT_DELETED + " GROUP BY p.categoryId")
+    List<Object[]> countByCategory();
+
+    @Query(SUMMARY_SELECT + NOT_DELETED + " AND p.id IN :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Dùng cho đồng bộ delta; tách OR thay vì COALESCE để MySQL dùng được index trên từng cột (index merge).
+    // pageable chỉ để giới hạn số dòng (LIMIT), không đếm tổng
+    @Query(SUMMARY_SELECT + NOT_DELETED + " AND (p.createdAt > :since OR p.updatedAt > :since)")
+    List<ProductSummaryDTO> findSummariesModifiedAfter(@Param("since") Instant since, Pageable pageable);
+
+    @Query("SELECT p.id, p.name, p.brandId, p.categoryId, p.shortDescription, p.price, p.views, p.soldQuantity " +
+            "FROM Product p" + NOT_DELETED)
+    List<Object[]> findAllForSearchIndex();
+
+    @Query("SELECT p.id, COALESCE(p.updatedAt, p.createdAt) FROM Product p" + NOT_DELETED)
+    List<Object[]> findAllModificationTimes();
+
+    Optional<Product> findByIdAndDeletedAtIsNull(Long id);
+
+    List<Product> findByIdInAndDeletedAtIsNull(Collection<Long> ids);
+
+    boolean existsByIdAndDeletedAtIsNull(Long id);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.deletedAt = :deletedAt WHERE p.id = :id AND p.deletedAt IS NULL")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") Instant deletedAt);
+
+    // Sản phẩm xóa mềm lâu nhất được dọn trước
+    @Query(value = "SELECT id FROM products WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT :limit", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("limit") int limit);
 }
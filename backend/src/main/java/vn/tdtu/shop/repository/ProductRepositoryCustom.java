@@ -0,0 +1,17 @@
+package vn.tdtu.shop.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import vn.tdtu.shop.domain.Product;
+
+public interface ProductRepositoryCustom {
+
+    // Phân trang keyset chỉ lấy cột cần cho summary, không nạp entity Product.
+    // Mỗi dòng: id, name, price, brandId, categoryId, primaryImageUrl, giá trị cột sort.
+    // after = khóa (cột sort, id) của dòng cuối trang trước, null cho trang đầu.
+    List<Object[]> scrollSummaryRows(Specification<Product> spec, Sort.Order order, Map<String, ?> after, int limit);
+}
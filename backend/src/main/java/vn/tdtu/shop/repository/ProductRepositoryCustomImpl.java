@@ -0,0 +1,59 @@
+package vn.tdtu.shop.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import vn.tdtu.shop.domain.Product;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> scrollSummaryRows(Specification<Product> spec, Sort.Order order, Map<String, ?> after,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(root.get("id"), root.get("name"), root.get("price"), root.get("brandId"),
+                root.get("categoryId"), root.get("primaryImageUrl"), root.get(order.getProperty()));
+
+        Predicate where = spec.toPredicate(root, query, cb);
+        if (after != null) {
+            where = cb.and(where, after(cb, root, order, after));
+        }
+        query.where(where);
+
+        Sort sort = order.getProperty().equals("id") ? Sort.by(order)
+                : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // (col, id) > (v, lastId) theo chiều sort, viết tách để MySQL dùng được range trên index của col
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate after(CriteriaBuilder cb, Root<Product> root, Sort.Order order, Map<String, ?> keys) {
+        Expression<Long> id = root.get("id");
+        Long lastId = (Long) keys.get("id");
+        Predicate idAfter = order.isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        if (order.getProperty().equals("id")) {
+            return idAfter;
+        }
+        Expression<Comparable> column = root.get(order.getProperty());
+        Comparable value = (Comparable) keys.get(order.getProperty());
+        Predicate columnAfter = order.isAscending() ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+        return cb.or(columnAfter, cb.and(cb.equal(column, value), idAfter));
+    }
+}
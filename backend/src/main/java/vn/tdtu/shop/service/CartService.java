@@ -12,6 +12,7 @@ import vn.tdtu.shop.repository.CartItemRepository;
 import vn.tdtu.shop.repository.CartRepository;
 import vn.tdtu.shop.repository.ProductRepository;
 import vn.tdtu.shop.repository.UserRepository;
+import vn.tdtu.shop.util.FieldSelection;
 import vn.tdtu.shop.util.error.ResourceNotFoundException;
 import vn.tdtu.shop.util.request.AddToCartRequest;
 import vn.tdtu.shop.util.request.CartDTO;
@@ -29,11 +30,13 @@ public class CartService {
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
 
-    public CartDTO fetchCart() {
+    public CartDTO fetchCart(FieldSelection fields) {
         User user = retrieveCurrentUser();
-        Cart cart = cartRepository.findByUserId(user.getId())
+        // Không yêu cầu items thì bỏ JOIN cart_items / products của entity graph
+        Cart cart = (fields.includes("items") ? cartRepository.findByUserId(user.getId())
+                : cartRepository.findWithoutItemsByUserId(user.getId()))
                 .orElseGet(() -> initializeCart(user));
-        return convertToCartDTO(cart);
+        return convertToCartDTO(cart, fields);
     }
 
     @Transactional
@@ -42,7 +45,7 @@ public class CartService {
         Cart cart = cartRepository.findByUserId(user.getId())
                 .orElseGet(() -> initializeCart(user));
 
-        Product product = productRepository.findById(request.getProductId())
+        Product product = productRepository.findByIdAndDeletedAtIsNull(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Sản phẩm không tồn tại"));
 
         CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), product.getId())
@@ -111,10 +114,20 @@ public class CartService {
     }
 
     private CartDTO convertToCartDTO(Cart cart) {
+        return convertToCartDTO(cart, FieldSelection.all());
+    }
+
+    private CartDTO convertToCartDTO(Cart cart, FieldSelection fields) {
         CartDTO cartDTO = new CartDTO();
         cartDTO.setId(cart.getId());
         cartDTO.setUserId(cart.getUser().getId());
+        if (!fields.includes("items")) {
+            cartDTO.setItems(null);
+            return cartDTO;
+        }
+        // Sản phẩm đã xóa mềm vẫn còn cart_item cho tới khi ProductPurger dọn, không hiển thị
         cartDTO.setItems(cart.getCartItems().stream()
+                .filter(cartItem -> cartItem.getProduct().getDeletedAt() == null)
                 .map(this::convertToCartItemDTO)
                 .collect(Collectors.toList()));
         return cartDTO;
@@ -126,7 +139,7 @@ public class CartService {
         itemDTO.setProductId(cartItem.getProduct().getId());
         itemDTO.setProductName(cartItem.getProduct().getName());
         itemDTO.setProductPrice(cartItem.getProduct().getPrice());
-        itemDTO.setProductImage(cartItem.getProduct().getImages().isEmpty() ? null : cartItem.getProduct().getImages().get(0).getUrl());
+        itemDTO.setProductImage(cartItem.getProduct().getPrimaryImageUrl());
         itemDTO.setQuantity(cartItem.getQuantity());
         return itemDTO;
     }
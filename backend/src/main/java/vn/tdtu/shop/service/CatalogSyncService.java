@@ -0,0 +1,221 @@
+package vn.tdtu.shop.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tdtu.shop.repository.ProductDeletionRepository;
+import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.response.CatalogChangesDTO;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Đồng bộ catalog cho client: một snapshot toàn bộ (JSON đã gzip sẵn, có version) và delta theo version.
+// Version là thời điểm (epoch millis) bắt đầu đọc dữ liệu. Delta đọc lùi thêm overlap-ms để không sót
+// transaction đã set updatedAt trước mốc nhưng commit sau mốc; client upsert nên nhận trùng không sao.
+@Service
+public class CatalogSyncService {
+
+    // Giống FormatRestResponse khi method không có @ApiMessage
+    private static final String SUCCESS_MESSAGE = "CALL API SUCCESS";
+
+    private static final String SNAPSHOT_SQL = "SELECT id, name, price, brand_id, category_id, primary_image_url FROM products "
+            + "WHERE deleted_at IS NULL ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+    private final ProductDeletionRepository productDeletionRepository;
+    private final CatalogDictionary catalogDictionary;
+
+    @Value("${product.sync.overlap-ms:5000}")
+    private long overlapMs;
+
+    @Value("${product.sync.snapshot-min-age-ms:60000}")
+    private long snapshotMinAgeMs;
+
+    @Value("${product.sync.deletion-retention-days:30}")
+    private int deletionRetentionDays;
+
+    @Value("${product.sync.max-changes:5000}")
+    private int maxChanges;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    public CatalogSyncService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, ProductRepository productRepository,
+            ProductDeletionRepository productDeletionRepository, CatalogDictionary catalogDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.productRepository = productRepository;
+        this.productDeletionRepository = productDeletionRepository;
+        this.catalogDictionary = catalogDictionary;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stale = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        stale = true;
+    }
+
+    // Snapshot chỉ build lại khi catalog đã đổi và bản hiện tại đủ cũ: client nhận bản cũ hơn một chút rồi
+    // tự bù bằng /changes, thay vì mỗi lần sửa sản phẩm lại phải serialize cả catalog
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (isUsable(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isUsable(current)) {
+                return current;
+            }
+            // Hạ cờ trước khi đọc: thay đổi xảy ra trong lúc build sẽ bật lại cờ
+            stale = false;
+            snapshot = buildSnapshot();
+            return snapshot;
+        }
+    }
+
+    public CatalogChangesDTO getChanges(long since) {
+        long now = System.currentTimeMillis();
+        CatalogChangesDTO changes = new CatalogChangesDTO();
+        changes.setVersion(now);
+        Instant oldestKept = Instant.ofEpochMilli(now).minus(Duration.ofDays(deletionRetentionDays));
+        if (Instant.ofEpochMilli(since).isBefore(oldestKept)) {
+            changes.setResetRequired(true);
+            return changes;
+        }
+        Instant from = Instant.ofEpochMilli(since - overlapMs);
+        // Đọc thêm một dòng để biết delta có vượt max-changes không; vượt thì tải snapshot (đã gzip sẵn) rẻ hơn
+        Pageable limit = PageRequest.of(0, maxChanges + 1);
+        List<ProductSummaryDTO> products = productRepository.findSummariesModifiedAfter(from, limit);
+        if (products.size() > maxChanges) {
+            changes.setResetRequired(true);
+            return changes;
+        }
+        List<Long> deleted = productDeletionRepository.findProductIdsDeletedAfter(from, limit);
+        if (deleted.size() > maxChanges) {
+            changes.setResetRequired(true);
+            return changes;
+        }
+        changes.setProducts(products);
+        changes.setDeleted(deleted);
+        return changes;
+    }
+
+    @Scheduled(fixedDelayString = "${product.sync.prune-interval-ms:3600000}")
+    public void pruneDeletionLog() {
+        Instant before = Instant.now().minus(Duration.ofDays(deletionRetentionDays));
+        int deleted = transactionTemplate.execute(status -> productDeletionRepository.deleteOlderThan(before));
+        if (deleted > 0) {
+            System.out.println(">>> PRUNED PRODUCT DELETION LOG: " + deleted + " rows");
+        }
+    }
+
+    private boolean isUsable(Snapshot current) {
+        return current != null
+                && (!stale || System.currentTimeMillis() - current.getVersion() < snapshotMinAgeMs);
+    }
+
+    // Ghi thẳng JSON (đã bọc RestResponse) qua gzip khi đọc cursor, không giữ danh sách DTO trên heap
+    private Snapshot buildSnapshot() {
+        long version = System.currentTimeMillis();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        int count = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 64 * 1024);
+                    JsonGenerator json = objectMapper.getFactory().createGenerator(gzip);
+                    PreparedStatement ps = connection.prepareStatement(SNAPSHOT_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Streaming từng dòng như ProductExportService
+                ps.setFetchSize(Integer.MIN_VALUE);
+                json.writeStartObject();
+                json.writeNumberField("statusCode", 200);
+                json.writeNullField("error");
+                json.writeStringField("message", SUCCESS_MESSAGE);
+                json.writeObjectFieldStart("data");
+                json.writeNumberField("version", version);
+                json.writeArrayFieldStart("products");
+                int written = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        writeProduct(json, rs);
+                        written++;
+                    }
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeEndObject();
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        byte[] gzip = buffer.toByteArray();
+        System.out.println(">>> CATALOG SYNC SNAPSHOT BUILT: " + count + " products, " + gzip.length / 1024
+                + " KB gzip");
+        return new Snapshot(version, gzip);
+    }
+
+    // Cùng field với ProductSummaryDTO để client dùng chung một kiểu cho snapshot, delta và trang danh sách
+    private void writeProduct(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong(1));
+        json.writeStringField("name", rs.getString(2));
+        BigDecimal price = rs.getBigDecimal(3);
+        if (price == null) {
+            json.writeNullField("price");
+        } else {
+            json.writeNumberField("price", price);
+        }
+        json.writeStringField("brand", catalogDictionary.brandName(rs.getInt(4)));
+        json.writeStringField("category", catalogDictionary.categoryName(rs.getInt(5)));
+        json.writeStringField("image", rs.getString(6));
+        json.writeEndObject();
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final long version;
+        private final byte[] gzip;
+
+        private Snapshot(long version, byte[] gzip) {
+            this.version = version;
+            this.gzip = gzip;
+        }
+
+        public String getEtag() {
+            return "\"catalog-" + version + "\"";
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package vn.tdtu.shop.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.Generator;
+import org.springframework.stereotype.Component;
+
+// Cấp id cho các đường ghi bằng JDBC (import, batch) từ chính generator mà Hibernate dùng cho entity,
+// nên id không bao giờ đụng nhau giữa hai đường ghi
+@Component
+public class EntityIdAllocator {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public EntityIdAllocator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public long[] allocate(Class<?> entityClass, int count) {
+        Generator generator = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getGenerator();
+        if (!(generator instanceof BeforeExecutionGenerator beforeExecution)) {
+            throw new IllegalStateException(entityClass.getSimpleName() + " không dùng generator cấp id trước khi insert");
+        }
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        // Generator bảng dùng connection riêng để cập nhật id_sequences nên không phụ thuộc transaction của caller
+        try (SessionImplementor session = (SessionImplementor) sessionFactory.openSession()) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) beforeExecution.generate(session, null, null, EventType.INSERT)).longValue();
+            }
+        }
+        return ids;
+    }
+}
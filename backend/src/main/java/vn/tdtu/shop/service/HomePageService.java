@@ -0,0 +1,135 @@
+package vn.tdtu.shop.service;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.response.HomeDTO;
+import vn.tdtu.shop.util.response.ProductFacetsDTO;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Trang chủ (mới nhất, bán chạy, xem nhiều, danh mục) tính sẵn thành một response đã serialize + gzip trong bộ nhớ.
+// Build lại nền: sau khi catalog thay đổi (debounce theo rebuild-delay-ms) và định kỳ theo refresh-interval-ms,
+// vì lượt xem / số lượng bán tăng ngoài luồng sửa sản phẩm nên không có event.
+@Service
+public class HomePageService {
+
+    private final ProductRepository productRepository;
+    private final CatalogDictionary catalogDictionary;
+    private final ProductResponseCache productResponseCache;
+
+    @Value("${home.section-size:12}")
+    private int sectionSize;
+
+    @Value("${home.refresh-interval-ms:300000}")
+    private long refreshIntervalMs;
+
+    private volatile HomePayload payload;
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    public HomePageService(ProductRepository productRepository, CatalogDictionary catalogDictionary,
+            ProductResponseCache productResponseCache) {
+        this.productRepository = productRepository;
+        this.catalogDictionary = catalogDictionary;
+        this.productResponseCache = productResponseCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildRequested.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuildRequested.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${home.rebuild-delay-ms:5000}")
+    public void rebuildIfChanged() {
+        HomePayload current = payload;
+        boolean expired = current == null || System.currentTimeMillis() - current.getVersion() >= refreshIntervalMs;
+        if (rebuildRequested.compareAndSet(true, false) || expired) {
+            rebuild();
+        }
+    }
+
+    // Request đến trước lần build đầu tiên (hoặc build đầu lỗi) thì tự build
+    public HomePayload getHome() {
+        HomePayload current = payload;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (payload == null) {
+                payload = build();
+            }
+            return payload;
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            payload = build();
+        } catch (RuntimeException e) {
+            // Giữ bản cũ, thử lại ở lần kiểm tra sau
+            rebuildRequested.set(true);
+            System.out.println(">>> HOME PAGE BUILD FAILED: " + e.getMessage());
+        }
+    }
+
+    private HomePayload build() {
+        long started = System.currentTimeMillis();
+        HomeDTO home = new HomeDTO();
+        home.setVersion(started);
+        home.setNewest(top(Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+        home.setBestSellers(top(Sort.by(Sort.Direction.DESC, "soldQuantity", "id")));
+        home.setMostViewed(top(Sort.by(Sort.Direction.DESC, "views", "id")));
+        home.setCategories(productRepository.countByCategory().stream()
+                .map(row -> new ProductFacetsDTO.FacetCountDTO(catalogDictionary.categoryName((Integer) row[0]),
+                        (Long) row[1]))
+                .sorted(Comparator.comparing(ProductFacetsDTO.FacetCountDTO::getValue,
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+                .toList());
+        HomePayload built = new HomePayload(started, productResponseCache.encode(home));
+        System.out.println(">>> HOME PAGE BUILT: " + built.getResponse().getIdentity().length / 1024 + " KB in "
+                + (System.currentTimeMillis() - started) + " ms");
+        return built;
+    }
+
+    private List<ProductSummaryDTO> top(Sort sort) {
+        return productRepository.findTopSummaries(PageRequest.of(0, sectionSize, sort));
+    }
+
+    @Getter
+    public static class HomePayload {
+        private final long version;
+        private final ProductResponseCache.EncodedResponse response;
+
+        private HomePayload(long version, ProductResponseCache.EncodedResponse response) {
+            this.version = version;
+            this.response = response;
+        }
+
+        public String getEtag() {
+            return "\"home-" + version + "\"";
+        }
+    }
+}
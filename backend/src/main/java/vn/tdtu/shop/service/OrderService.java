@@ -2,6 +2,7 @@ package vn.tdtu.shop.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,12 +10,17 @@ import org.springframework.stereotype.Service;
 import vn.tdtu.shop.domain.*;
 import vn.tdtu.shop.repository.*;
 import vn.tdtu.shop.service.specification.OrderSpecification;
+import vn.tdtu.shop.util.FieldSelection;
 import vn.tdtu.shop.util.constant.OrderStatus;
 import vn.tdtu.shop.util.error.ResourceNotFoundException;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
 import vn.tdtu.shop.util.request.*;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +33,7 @@ public class OrderService {
     private final CartItemRepository cartItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
@@ -34,7 +41,11 @@ public class OrderService {
         Cart cart = cartRepository.findByUserId(user.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Giỏ hàng không tồn tại"));
 
-        if (cart.getCartItems().isEmpty()) {
+        // Bỏ qua sản phẩm đã xóa mềm còn sót trong giỏ
+        List<CartItem> cartItems = cart.getCartItems().stream()
+                .filter(cartItem -> cartItem.getProduct().getDeletedAt() == null)
+                .collect(Collectors.toList());
+        if (cartItems.isEmpty()) {
             throw new IllegalStateException("Giỏ hàng rỗng");
         }
 
@@ -46,7 +57,7 @@ public class OrderService {
         order.setReceiverName(request.getReceiverName());
         order.setStatus(OrderStatus.PENDING);
 
-        cart.getCartItems().forEach(cartItem -> {
+        cartItems.forEach(cartItem -> {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(cartItem.getProduct());
@@ -61,21 +72,25 @@ public class OrderService {
         updateProductSoldQuantities(savedOrder);
         clearCart(cart.getId());
 
+        Map<Long, Integer> quantities = new HashMap<>();
+        savedOrder.getItems().forEach(item -> quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), quantities));
+
         return mapToOrderDTO(savedOrder);
     }
 
-    public Page<OrderDTO> getUserOrders(Pageable pageable) {
+    public Page<OrderDTO> getUserOrders(Pageable pageable, FieldSelection fields) {
         User user = getCurrentUser();
         return orderRepository.findByUserId(user.getId(), pageable)
-                .map(this::mapToOrderDTO);
+                .map(order -> mapToOrderDTO(order, fields));
     }
 
-    public OrderDTO getOrderById(Long orderId) {
+    public OrderDTO getOrderById(Long orderId, FieldSelection fields) {
         User user = getCurrentUser();
         Order order = orderRepository.findById(orderId)
                 .filter(o -> o.getUser().getId().equals(user.getId()) || hasAdminRole())
                 .orElseThrow(() -> new ResourceNotFoundException("Đơn hàng không tồn tại hoặc không có quyền truy cập"));
-        return mapToOrderDTO(order);
+        return mapToOrderDTO(order, fields);
     }
 
     @Transactional
@@ -99,9 +114,10 @@ public class OrderService {
         return mapToOrderDTO(orderRepository.save(order));
     }
 
-    public Page<OrderDTO> getAllOrders(Pageable pageable, OrderStatus status, Instant startDate, Instant endDate, String search) {
+    public Page<OrderDTO> getAllOrders(Pageable pageable, OrderStatus status, Instant startDate, Instant endDate,
+            String search, FieldSelection fields) {
         return orderRepository.findAll(OrderSpecification.filterOrders(status, startDate, endDate, search), pageable)
-                .map(this::mapToOrderDTO);
+                .map(order -> mapToOrderDTO(order, fields));
     }
 
     private User getCurrentUser() {
@@ -136,6 +152,12 @@ public class OrderService {
     }
 
     private OrderDTO mapToOrderDTO(Order order) {
+        return mapToOrderDTO(order, FieldSelection.all());
+    }
+
+    // Không chạm tới order.getItems() / item.getProduct() khi client không yêu cầu,
+    // nên trang đơn hàng chỉ lấy cột của orders thì không phát sinh truy vấn order_items / products
+    private OrderDTO mapToOrderDTO(Order order, FieldSelection fields) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setUserId(order.getUser().getId());
@@ -144,19 +166,25 @@ public class OrderService {
         dto.setShippingAddress(order.getShippingAddress());
         dto.setReceiverPhone(order.getReceiverPhone());
         dto.setReceiverName(order.getReceiverName());
-        dto.setItems(order.getItems().stream().map(this::mapToOrderItemDTO).collect(Collectors.toList()));
+        if (fields.includes("items")) {
+            dto.setItems(order.getItems().stream().map(item -> mapToOrderItemDTO(item, fields))
+                    .collect(Collectors.toList()));
+        }
         dto.setTotalAmount(order.getTotalAmount());
         return dto;
     }
 
-    private OrderItemDTO mapToOrderItemDTO(OrderItem item) {
+    private OrderItemDTO mapToOrderItemDTO(OrderItem item, FieldSelection fields) {
         OrderItemDTO dto = new OrderItemDTO();	
         dto.setId(item.getId());
         dto.setProductId(item.getProduct().getId());
-        dto.setProductName(item.getProduct().getName());
         dto.setPrice(item.getPrice());
         dto.setQuantity(item.getQuantity());
-        dto.setProductImage(item.getProduct().getImages().isEmpty() ? null : item.getProduct().getImages().get(0).getUrl());
+        // getId() của proxy không nạp product; tên / ảnh thì có
+        if (fields.includesAny("items", "productName", "productImage")) {
+            dto.setProductName(item.getProduct().getName());
+            dto.setProductImage(item.getProduct().getPrimaryImageUrl());
+        }
         return dto;
     }
 }
\ No newline at end of file
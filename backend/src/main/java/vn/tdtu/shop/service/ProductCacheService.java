@@ -0,0 +1,163 @@
+package vn.tdtu.shop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.service.search.ProductSearchKey;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.CacheStatsDTO;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductCacheService {
+
+    private final Cache<Long, ProductDTO> productCache;
+    private final Cache<Pageable, Page<ProductSummaryDTO>> pageCache;
+    private final Cache<Long, ProductSummaryDTO> summaryCache;
+    private final Cache<ProductSearchKey, Page<ProductSummaryDTO>> searchCache;
+    private final CatalogDictionary catalogDictionary;
+
+    public ProductCacheService(CatalogDictionary catalogDictionary,
+            @Value("${product.cache.max-size:1000}") long maxSize,
+            @Value("${product.cache.page-max-size:200}") long pageMaxSize,
+            @Value("${product.cache.search-max-size:500}") long searchMaxSize,
+            @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.catalogDictionary = catalogDictionary;
+        this.productCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.pageCache = Caffeine.newBuilder()
+                .maximumSize(pageMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.summaryCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.searchCache = Caffeine.newBuilder()
+                .maximumSize(searchMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Các request cùng id khi miss chỉ gọi loader một lần, các request còn lại chờ kết quả
+    public ProductDTO getProduct(Long id, Function<Long, ProductDTO> loader) {
+        return productCache.get(id, loader);
+    }
+
+    // Multi-get: chỉ các id miss được nạp, bằng một lần gọi loader; id loader không trả về thì không có trong kết quả
+    public Map<Long, ProductDTO> getProducts(Collection<Long> ids,
+            Function<Collection<Long>, Map<Long, ProductDTO>> loader) {
+        return productCache.getAll(ids, missing -> loader.apply(new ArrayList<>(missing)));
+    }
+
+    public Page<ProductSummaryDTO> getPage(Pageable pageable, Function<Pageable, Page<ProductSummaryDTO>> loader) {
+        return pageCache.get(pageable, loader);
+    }
+
+    // Giống getProduct: các request cùng khóa khi miss chờ chung một lần nạp
+    public Page<ProductSummaryDTO> getSearchPage(ProductSearchKey key, Function<ProductSearchKey, Page<ProductSummaryDTO>> loader) {
+        return searchCache.get(key, loader);
+    }
+
+    // Dùng cho các danh sách id tính sẵn trong bộ nhớ (gợi ý, trending...): chỉ các id miss mới được nạp, bằng một query
+    public Map<Long, ProductSummaryDTO> getSummaries(Collection<Long> ids,
+            Function<Collection<Long>, List<ProductSummaryDTO>> loader) {
+        return summaryCache.getAll(ids, missing -> loader.apply(new ArrayList<>(missing)).stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, Function.identity())));
+    }
+
+    public void evict(Long id) {
+        productCache.invalidate(id);
+        summaryCache.invalidate(id);
+        pageCache.invalidateAll();
+    }
+
+    // Chạy sau khi transaction commit để request đọc song song không nạp lại dữ liệu cũ
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    // Chỉ xóa các trang tìm kiếm thuộc lát category / brand của sản phẩm (cả giá trị cũ lẫn mới khi cập nhật).
+    // Xóa mềm không biết category / brand của sản phẩm nên xóa toàn bộ, thao tác này hiếm.
+    // Chạy sau ProductSearchIndex (@Order(0)) để lần nạp lại đọc index đã cập nhật.
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictSearchSlices(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            searchCache.invalidateAll();
+            return;
+        }
+        Integer categoryId = catalogDictionary.categoryFilter(event.getProduct().getCategory());
+        Integer brandId = catalogDictionary.brandFilter(event.getProduct().getBrand());
+        Integer previousCategoryId = catalogDictionary.categoryFilter(event.getPreviousCategory());
+        Integer previousBrandId = catalogDictionary.brandFilter(event.getPreviousBrand());
+        boolean moved = event.getType() == ProductChangedEvent.ChangeType.UPDATED;
+        searchCache.asMap().keySet().removeIf(key -> key.covers(categoryId, brandId)
+                || (moved && key.covers(previousCategoryId, previousBrandId)));
+    }
+
+    // Sản phẩm mới chưa có trong cache theo id; chỉ các trang danh sách / tìm kiếm cần xóa, một lần cho cả lần import
+    // Đơn hàng đổi soldQuantity: bỏ DTO của các sản phẩm trong đơn và các trang danh sách (có thể sắp theo số bán).
+    // Trang tìm kiếm giữ nguyên, cũ tối đa ttl-seconds như trước
+    @Order(0)
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        productCache.invalidateAll(event.getQuantities().keySet());
+        summaryCache.invalidateAll(event.getQuantities().keySet());
+        pageCache.invalidateAll();
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        pageCache.invalidateAll();
+        searchCache.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> getStats() {
+        return List.of(
+                toStatsDTO("products", productCache),
+                toStatsDTO("product-pages", pageCache),
+                toStatsDTO("product-summaries", summaryCache),
+                toStatsDTO("product-search", searchCache));
+    }
+
+    private CacheStatsDTO toStatsDTO(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadCount(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000.0);
+    }
+}
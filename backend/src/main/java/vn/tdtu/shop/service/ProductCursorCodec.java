@@ -0,0 +1,86 @@
+package vn.tdtu.shop.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import vn.tdtu.shop.util.error.InputInvalidException;
+
+public class ProductCursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    // Chỉ cho phép sort trên các cột NOT NULL để điều kiện keyset (col, id) > (?, ?) luôn đúng
+    private static final Map<String, Function<String, Object>> SORTABLE = Map.of(
+            "id", Long::valueOf,
+            "price", BigDecimal::new,
+            "createdAt", Instant::parse,
+            "views", Long::valueOf,
+            "soldQuantity", Long::valueOf,
+            "popularity", Double::valueOf,
+            "name", value -> value);
+
+    private ProductCursorCodec() {
+    }
+
+    public static Sort.Order resolveOrder(Sort sort) throws InputInvalidException {
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.Order.asc("id");
+        }
+        if (sort.stream().count() > 1) {
+            throw new InputInvalidException("Phân trang cursor chỉ hỗ trợ sắp xếp theo một cột");
+        }
+        Sort.Order order = sort.iterator().next();
+        if (!SORTABLE.containsKey(order.getProperty())) {
+            throw new InputInvalidException("Không hỗ trợ sắp xếp theo: " + order.getProperty()
+                    + ". Các cột hợp lệ: " + SORTABLE.keySet());
+        }
+        return order;
+    }
+
+    // Luôn thêm id làm khóa phụ để thứ tự là duy nhất
+    public static Sort toSort(Sort.Order order) {
+        if (order.getProperty().equals("id")) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+    }
+
+    public static String encode(Sort.Order order, KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        String raw = order.getProperty() + SEPARATOR + order.getDirection().name()
+                + SEPARATOR + keys.get("id")
+                + SEPARATOR + keys.get(order.getProperty());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(Sort.Order order, String cursor) throws InputInvalidException {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // Giá trị sort nằm cuối cùng vì có thể chứa ký tự phân cách (ví dụ tên sản phẩm)
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4 || !parts[0].equals(order.getProperty())
+                    || !parts[1].equals(order.getDirection().name())) {
+                throw new InputInvalidException("Cursor không khớp với kiểu sắp xếp hiện tại");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(order.getProperty(), SORTABLE.get(order.getProperty()).apply(parts[3]));
+            keys.put("id", Long.valueOf(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InputInvalidException("Cursor không hợp lệ");
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package vn.tdtu.shop.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.CsvWriter;
+import vn.tdtu.shop.util.error.InputInvalidException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+// Xuất toàn bộ catalog theo kiểu stream: đọc qua cursor JDBC chỉ tiến, ghi từng sản phẩm ra output ngay,
+// bộ nhớ chỉ giữ một sản phẩm tại một thời điểm. Định dạng khớp với ProductImportService để nhập lại được.
+@Service
+public class ProductExportService {
+
+    // LEFT JOIN images: mỗi sản phẩm là một nhóm dòng liên tiếp (ORDER BY p.id), ghép ảnh trong lúc đọc.
+    // brand_id / category_id được giải mã qua CatalogDictionary trong bộ nhớ thay vì join thêm hai bảng.
+    private static final String EXPORT_SQL = "SELECT p.id, p.name, p.price, p.brand_id, p.category_id, "
+            + "p.short_description, p.detailed_description, p.sold_quantity, p.views, p.created_at, p.updated_at, i.url "
+            + "FROM products p LEFT JOIN images i ON i.product_id = p.id "
+            + "WHERE p.deleted_at IS NULL "
+            + "ORDER BY p.id, i.sort_order, i.id";
+
+    private static final List<String> CSV_HEADER = List.of("id", "name", "price", "brand", "category",
+            "shortDescription", "detailedDescription", "soldQuantity", "views", "images", "createdAt", "updatedAt");
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        JSONL("jsonl", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format parse(String value) throws InputInvalidException {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InputInvalidException("Định dạng xuất không hỗ trợ: " + value + ". Chọn csv hoặc jsonl");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogDictionary catalogDictionary;
+
+    public ProductExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            CatalogDictionary catalogDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.catalogDictionary = catalogDictionary;
+    }
+
+    // Không đóng out: caller (StreamingResponseBody / GZIPOutputStream) tự kết thúc stream
+    public long export(OutputStream out, Format format) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? csvWriter(writer) : jsonLinesWriter(writer);
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        long exported = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            // Connector/J mặc định nạp hết kết quả vào heap; FORWARD_ONLY + READ_ONLY + fetchSize MIN_VALUE
+            // bật chế độ streaming từng dòng chỉ cho câu lệnh này (connection bị giữ đến khi đóng ResultSet)
+            try (PreparedStatement ps = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    ExportRow row = new ExportRow();
+                    long count = 0;
+                    while (rs.next()) {
+                        long id = rs.getLong(1);
+                        if (row.id == null || row.id != id) {
+                            if (row.id != null) {
+                                rowWriter.write(row);
+                                count++;
+                            }
+                            row.reset(id);
+                            row.name = rs.getString(2);
+                            row.price = rs.getBigDecimal(3);
+                            row.brand = catalogDictionary.brandName(rs.getInt(4));
+                            row.category = catalogDictionary.categoryName(rs.getInt(5));
+                            row.shortDescription = rs.getString(6);
+                            row.detailedDescription = rs.getString(7);
+                            row.soldQuantity = rs.getLong(8);
+                            row.views = rs.getLong(9);
+                            row.createdAt = toInstant(rs.getTimestamp(10, utc));
+                            row.updatedAt = toInstant(rs.getTimestamp(11, utc));
+                        }
+                        String url = rs.getString(12);
+                        if (url != null) {
+                            row.images.add(url);
+                        }
+                    }
+                    if (row.id != null) {
+                        rowWriter.write(row);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    // Client ngắt kết nối giữa chừng: dừng đọc cursor và trả connection về pool
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println(">>> EXPORT PRODUCTS: " + exported + " rows as " + format.name().toLowerCase(Locale.ROOT));
+        return exported;
+    }
+
+    private interface RowWriter {
+        void write(ExportRow row) throws IOException;
+    }
+
+    private static RowWriter csvWriter(Writer writer) {
+        CsvWriter csv = new CsvWriter(writer);
+        boolean[] headerWritten = { false };
+        return row -> {
+            if (!headerWritten[0]) {
+                csv.writeRecord(CSV_HEADER);
+                headerWritten[0] = true;
+            }
+            csv.writeRecord(List.of(
+                    String.valueOf(row.id),
+                    nullToEmpty(row.name),
+                    row.price == null ? "" : row.price.toPlainString(),
+                    nullToEmpty(row.brand),
+                    nullToEmpty(row.category),
+                    nullToEmpty(row.shortDescription),
+                    nullToEmpty(row.detailedDescription),
+                    String.valueOf(row.soldQuantity),
+                    String.valueOf(row.views),
+                    String.join("|", row.images),
+                    row.createdAt == null ? "" : row.createdAt.toString(),
+                    row.updatedAt == null ? "" : row.updatedAt.toString()));
+        };
+    }
+
+    private RowWriter jsonLinesWriter(Writer writer) {
+        return row -> {
+            // Không để generator đóng writer sau mỗi dòng
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                json.writeStartObject();
+                json.writeNumberField("id", row.id);
+                json.writeStringField("name", row.name);
+                json.writeNumberField("price", row.price);
+                json.writeStringField("brand", row.brand);
+                json.writeStringField("category", row.category);
+                json.writeStringField("shortDescription", row.shortDescription);
+                json.writeStringField("detailedDescription", row.detailedDescription);
+                json.writeNumberField("soldQuantity", row.soldQuantity);
+                json.writeNumberField("views", row.views);
+                json.writeArrayFieldStart("images");
+                for (String url : row.images) {
+                    json.writeString(url);
+                }
+                json.writeEndArray();
+                json.writeStringField("createdAt", row.createdAt == null ? null : row.createdAt.toString());
+                json.writeStringField("updatedAt", row.updatedAt == null ? null : row.updatedAt.toString());
+                json.writeEndObject();
+            }
+            writer.write('\n');
+        };
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    // Dùng lại một object cho mọi sản phẩm
+    private static final class ExportRow {
+        private Long id;
+        private String name;
+        private BigDecimal price;
+        private String brand;
+        private String category;
+        private String shortDescription;
+        private String detailedDescription;
+        private long soldQuantity;
+        private long views;
+        private Instant createdAt;
+        private Instant updatedAt;
+        private final List<String> images = new ArrayList<>();
+
+        private void reset(long newId) {
+            id = newId;
+            images.clear();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package vn.tdtu.shop.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import vn.tdtu.shop.domain.Product;
+import vn.tdtu.shop.repository.ImageRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.FieldSelection;
+import vn.tdtu.shop.util.request.ProductDTO;
+
+// Đọc chi tiết sản phẩm theo fields=: chỉ SELECT các cột được yêu cầu (bỏ detailedDescription kiểu TEXT khi
+// không cần) và chỉ truy vấn bảng images khi có field images. Không đi qua ProductCacheService vì cache đó
+// giữ ProductDTO đầy đủ; request không có fields= vẫn dùng ProductService.findProductById.
+@Service
+@RequiredArgsConstructor
+public class ProductFieldLoader {
+
+    // field của ProductDTO (trừ id, images) -> thuộc tính của Product và cách gán vào DTO;
+    // brand / category lưu dạng id nên giải mã qua dictionary
+    private final Map<String, Column> columns = buildColumns();
+
+    private final ImageRepository imageRepository;
+    private final CatalogDictionary catalogDictionary;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductDTO load(Long id, FieldSelection selection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        List<Column> selected = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        // Luôn chọn id để biết sản phẩm có tồn tại dù client không yêu cầu field nào là cột
+        selections.add(root.get("id").alias("id"));
+        columns.forEach((field, column) -> {
+            if (selection.includes(field)) {
+                selected.add(column);
+                selections.add(root.get(column.attribute).alias(column.attribute));
+            }
+        });
+        query.multiselect(selections)
+                .where(cb.equal(root.get("id"), id), cb.isNull(root.get("deletedAt")));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(1).getResultList();
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Sản phẩm không tồn tại: " + id);
+        }
+        Tuple row = rows.get(0);
+        ProductDTO dto = new ProductDTO();
+        dto.setId(row.get("id", Long.class));
+        for (Column column : selected) {
+            column.setter.accept(dto, row.get(column.attribute));
+        }
+        dto.setImages(selection.includes("images") ? imageRepository.findUrlsByProductId(id) : null);
+        return dto;
+    }
+
+    private Map<String, Column> buildColumns() {
+        Map<String, Column> map = new LinkedHashMap<>();
+        map.put("name", new Column("name", (dto, value) -> dto.setName((String) value)));
+        map.put("price", new Column("price", (dto, value) -> dto.setPrice((BigDecimal) value)));
+        map.put("brand", new Column("brandId",
+                (dto, value) -> dto.setBrand(catalogDictionary.brandName((Integer) value))));
+        map.put("category", new Column("categoryId",
+                (dto, value) -> dto.setCategory(catalogDictionary.categoryName((Integer) value))));
+        map.put("views", new Column("views", (dto, value) -> dto.setViews((Long) value)));
+        map.put("soldQuantity", new Column("soldQuantity", (dto, value) -> dto.setSoldQuantity((Long) value)));
+        map.put("shortDescription", new Column("shortDescription",
+                (dto, value) -> dto.setShortDescription((String) value)));
+        map.put("detailedDescription", new Column("detailedDescription",
+                (dto, value) -> dto.setDetailedDescription((String) value)));
+        return map;
+    }
+
+    private record Column(String attribute, BiConsumer<ProductDTO, Object> setter) {
+    }
+}
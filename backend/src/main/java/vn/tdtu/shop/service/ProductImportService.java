@@ -0,0 +1,343 @@
+package vn.tdtu.shop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tdtu.shop.domain.Image;
+import vn.tdtu.shop.domain.Product;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.CsvReader;
+import vn.tdtu.shop.util.error.InputInvalidException;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.ProductImportResultDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products "
+            + "(id, name, price, brand_id, category_id, views, sold_quantity, short_description, detailed_description, "
+            + "primary_image_url, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IMAGE_SQL = "INSERT INTO images (id, url, product_id, sort_order) VALUES (?, ?, ?, ?)";
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityIdAllocator idAllocator;
+    private final CatalogDictionary catalogDictionary;
+
+    @Value("${product.import.chunk-size:500}")
+    private int chunkSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, Validator validator, ApplicationEventPublisher eventPublisher,
+            EntityIdAllocator idAllocator, CatalogDictionary catalogDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.idAllocator = idAllocator;
+        this.catalogDictionary = catalogDictionary;
+    }
+
+    public ProductImportResultDTO importProducts(InputStream body, String contentType) throws IOException, InputInvalidException {
+        long start = System.nanoTime();
+        ProductImportResultDTO result = new ProductImportResultDTO();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        List<Long> importedIds = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            RowSource source = isCsv(contentType) ? csvSource(reader) : jsonLinesSource(reader);
+            ImportRow row;
+            while ((row = source.next()) != null) {
+                result.setTotalRows(result.getTotalRows() + 1);
+                if (row.error == null) {
+                    row.error = validate(row.product);
+                }
+                if (row.error != null) {
+                    addError(result, row.line, row.error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, result, importedIds);
+                }
+            }
+            flushChunk(chunk, result, importedIds);
+        } finally {
+            // Các chunk đã commit vẫn phải vào index / cache kể cả khi upload bị ngắt giữa chừng
+            if (!importedIds.isEmpty()) {
+                eventPublisher.publishEvent(new ProductsImportedEvent(importedIds));
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setDurationMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : result.getImportedRows() * 1_000_000_000.0 / elapsedNanos);
+        System.out.println(">>> IMPORT PRODUCTS: " + result.getImportedRows() + "/" + result.getTotalRows()
+                + " rows in " + result.getDurationMs() + " ms");
+        return result;
+    }
+
+    private static boolean isCsv(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv");
+    }
+
+    // Mỗi chunk một transaction; nếu batch lỗi thì chèn lại từng dòng để xác định dòng nào hỏng
+    private void flushChunk(List<ImportRow> chunk, ProductImportResultDTO result, List<Long> importedIds) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(chunk));
+            onImported(chunk, result, importedIds);
+        } catch (RuntimeException batchError) {
+            for (ImportRow row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(row)));
+                    onImported(List.of(row), result, importedIds);
+                } catch (RuntimeException rowError) {
+                    addError(result, row.line, rootMessage(rowError));
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void onImported(List<ImportRow> rows, ProductImportResultDTO result, List<Long> importedIds) {
+        result.setImportedRows(result.getImportedRows() + rows.size());
+        for (ImportRow row : rows) {
+            importedIds.add(row.product.getId());
+        }
+    }
+
+    private void insertBatch(List<ImportRow> rows) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        Timestamp now = Timestamp.from(Instant.now());
+
+        // Id cấp sẵn từ generator bảng nên không cần đọc lại generated keys sau mỗi batch
+        long[] productIds = idAllocator.allocate(Product.class, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).product.setId(productIds[i]);
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT_SQL)) {
+                for (ImportRow row : rows) {
+                    ProductDTO p = row.product;
+                    ps.setLong(1, p.getId());
+                    ps.setString(2, p.getName());
+                    ps.setBigDecimal(3, p.getPrice());
+                    ps.setInt(4, catalogDictionary.encodeBrand(p.getBrand()));
+                    ps.setInt(5, catalogDictionary.encodeCategory(p.getCategory()));
+                    ps.setLong(6, p.getViews() != null ? p.getViews() : 0L);
+                    ps.setLong(7, p.getSoldQuantity() != null ? p.getSoldQuantity() : 0L);
+                    setNullableString(ps, 8, p.getShortDescription());
+                    setNullableString(ps, 9, p.getDetailedDescription());
+                    setNullableString(ps, 10, p.getImages().isEmpty() ? null : p.getImages().get(0));
+                    ps.setTimestamp(11, now, utc);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+
+        int imageCount = 0;
+        for (ImportRow row : rows) {
+            imageCount += row.product.getImages().size();
+        }
+        long[] imageIds = idAllocator.allocate(Image.class, imageCount);
+        List<Object[]> imageArgs = new ArrayList<>(imageCount);
+        for (ImportRow row : rows) {
+            List<String> urls = row.product.getImages();
+            for (int i = 0; i < urls.size(); i++) {
+                // Cùng khoảng cách với ProductService.syncImages để lần sửa sau chèn được mà không đánh số lại
+                imageArgs.add(new Object[] { imageIds[imageArgs.size()], urls.get(i), row.product.getId(),
+                        i * ProductService.IMAGE_SORT_GAP });
+            }
+        }
+        if (!imageArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE_SQL, imageArgs);
+        }
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private String validate(ProductDTO product) {
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private static void addError(ProductImportResultDTO result, long line, String message) {
+        result.setFailedRows(result.getFailedRows() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ProductImportResultDTO.RowErrorDTO(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // Package-private để test đọc lại được file export (ProductExportServiceTest)
+    interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    static final class ImportRow {
+        final long line;
+        final ProductDTO product;
+        String error;
+
+        private ImportRow(long line, ProductDTO product, String error) {
+            this.line = line;
+            this.product = product;
+            this.error = error;
+        }
+    }
+
+    // Mỗi dòng là một ProductDTO dạng JSON
+    RowSource jsonLinesSource(BufferedReader reader) {
+        long[] lineNumber = { 0 };
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ProductDTO product = objectMapper.readValue(line, ProductDTO.class);
+                    if (product.getImages() == null) {
+                        product.setImages(new ArrayList<>());
+                    }
+                    product.setId(null);
+                    return new ImportRow(lineNumber[0], product, null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(lineNumber[0], null, "JSON không hợp lệ: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    // Dòng đầu là header; cột images gồm nhiều URL ngăn cách bởi '|'
+    RowSource csvSource(BufferedReader reader) throws IOException, InputInvalidException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new InputInvalidException("File CSV rỗng");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Bỏ BOM UTF-8 mà Excel hay thêm vào đầu file
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.put(column, i);
+        }
+        for (String required : List.of("name", "price", "brand", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new InputInvalidException("File CSV thiếu cột bắt buộc: " + required);
+            }
+        }
+
+        return () -> {
+            List<String> record;
+            int line;
+            do {
+                line = csv.getLineNumber();
+                record = csv.readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            if (record == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(line, toProduct(record, columns), null);
+            } catch (NumberFormatException e) {
+                return new ImportRow(line, null, "Giá trị số không hợp lệ: " + e.getMessage());
+            }
+        };
+    }
+
+    private static ProductDTO toProduct(List<String> record, Map<String, Integer> columns) {
+        ProductDTO product = new ProductDTO();
+        product.setName(column(record, columns, "name"));
+        String price = column(record, columns, "price");
+        product.setPrice(price == null ? null : new BigDecimal(price));
+        product.setBrand(column(record, columns, "brand"));
+        product.setCategory(column(record, columns, "category"));
+        product.setShortDescription(column(record, columns, "shortdescription"));
+        product.setDetailedDescription(column(record, columns, "detaileddescription"));
+        String soldQuantity = column(record, columns, "soldquantity");
+        product.setSoldQuantity(soldQuantity == null ? 0L : Long.parseLong(soldQuantity));
+        String views = column(record, columns, "views");
+        product.setViews(views == null ? 0L : Long.parseLong(views));
+        String images = column(record, columns, "images");
+        if (images != null) {
+            product.setImages(Arrays.stream(images.split("\\|"))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .collect(Collectors.toList()));
+        }
+        return product;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,70 @@
+package vn.tdtu.shop.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tdtu.shop.repository.ProductRepository;
+
+import java.util.List;
+
+// Xóa hẳn sản phẩm đã xóa mềm cùng các dòng phụ thuộc. Mỗi lô DELETE ... LIMIT là một transaction ngắn,
+// nghỉ giữa các lô để không giữ lock lâu trên cart_items / order_items làm nghẽn checkout.
+@Service
+public class ProductPurger {
+
+    private static final List<String> DEPENDENT_DELETES = List.of(
+            "DELETE FROM cart_items WHERE product_id = ? LIMIT ?",
+            "DELETE FROM order_items WHERE product_id = ? LIMIT ?",
+            "DELETE FROM images WHERE product_id = ? LIMIT ?");
+    private static final String DELETE_PRODUCT_SQL = "DELETE FROM products WHERE id = ? AND deleted_at IS NOT NULL";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.purge.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${product.purge.products-per-run:20}")
+    private int productsPerRun;
+
+    public ProductPurger(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${product.purge.interval-ms:60000}")
+    public void purge() {
+        List<Long> ids = productRepository.findDeletedIds(productsPerRun);
+        try {
+            for (Long id : ids) {
+                purgeProduct(id);
+            }
+        } catch (InterruptedException e) {
+            // Ứng dụng đang tắt: phần còn lại được dọn ở lần chạy sau
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void purgeProduct(Long id) throws InterruptedException {
+        long deletedRows = 0;
+        for (String sql : DEPENDENT_DELETES) {
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> jdbcTemplate.update(sql, id, batchSize));
+                deletedRows += deleted;
+                Thread.sleep(pauseMs);
+            } while (deleted == batchSize);
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DELETE_PRODUCT_SQL, id));
+        System.out.println(">>> PURGED PRODUCT " + id + " (" + deletedRows + " dependent rows)");
+    }
+}
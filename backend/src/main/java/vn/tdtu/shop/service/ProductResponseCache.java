@@ -0,0 +1,169 @@
+package vn.tdtu.shop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.response.CacheStatsDTO;
+import vn.tdtu.shop.util.response.RestResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Cache response đã serialize sẵn (cả lớp bọc RestResponse) thành byte UTF-8, kèm bản gzip nếu đủ lớn.
+// Cache hit chỉ còn ghi mảng byte ra output stream: không map DTO, không chạy Jackson, không qua FormatRestResponse.
+@Service
+public class ProductResponseCache {
+
+    // Giống FormatRestResponse khi method không có @ApiMessage
+    private static final String SUCCESS_MESSAGE = "CALL API SUCCESS";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, EncodedResponse> productResponses;
+    private final Cache<Pageable, EncodedResponse> pageResponses;
+
+    @Value("${product.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    public ProductResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${product.response-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.productResponses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 2)
+                .weigher((Long id, EncodedResponse response) -> response.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.pageResponses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 2)
+                .weigher((Pageable pageable, EncodedResponse response) -> response.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public EncodedResponse getProduct(Long id, Supplier<Object> loader) {
+        return productResponses.get(id, key -> encode(loader.get()));
+    }
+
+    public EncodedResponse getPage(Pageable pageable, Supplier<Object> loader) {
+        return pageResponses.get(pageable, key -> encode(loader.get()));
+    }
+
+    // Chạy sau ProductCacheService (@Order(0)) để loader không đọc lại DTO cũ từ cache bên dưới,
+    // và trước khi ProductValidatorIndex đổi ETag
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        productResponses.invalidate(event.getProductId());
+        pageResponses.invalidateAll();
+    }
+
+    @Order(1)
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        productResponses.invalidateAll(event.getQuantities().keySet());
+        pageResponses.invalidateAll();
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        pageResponses.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> getStats() {
+        return List.of(
+                toStatsDTO("product-responses", productResponses),
+                toStatsDTO("product-page-responses", pageResponses));
+    }
+
+    // Bọc RestResponse, serialize và nén; dùng chung cho các response tính sẵn khác (trang chủ)
+    public EncodedResponse encode(Object data) {
+        RestResponse<Object> envelope = new RestResponse<>();
+        envelope.setStatusCode(200);
+        envelope.setMessage(SUCCESS_MESSAGE);
+        envelope.setData(data);
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(envelope);
+            byte[] gzip = identity.length >= gzipMinBytes ? gzip(identity) : null;
+            return new EncodedResponse(identity, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không serialize được response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private CacheStatsDTO toStatsDTO(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadCount(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000.0);
+    }
+
+    @Getter
+    public static class EncodedResponse {
+        private final byte[] identity;
+        // null nếu response nhỏ, nén không đáng
+        private final byte[] gzip;
+
+        private EncodedResponse(byte[] identity, byte[] gzip) {
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        private int weight() {
+            return identity.length + (gzip == null ? 0 : gzip.length);
+        }
+
+        // Ghi thẳng ra output stream; dùng bản gzip nếu có và client chấp nhận
+        public void writeTo(String acceptEncoding, HttpServletResponse response) throws IOException {
+            byte[] body = identity;
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                body = gzip;
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
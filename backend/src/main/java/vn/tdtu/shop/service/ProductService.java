@@ -3,96 +3,488 @@ package vn.tdtu.shop.service;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import vn.tdtu.shop.domain.Image;
 import vn.tdtu.shop.domain.Product;
+import vn.tdtu.shop.domain.ProductDeletion;
 import vn.tdtu.shop.repository.CartItemRepository;
+import vn.tdtu.shop.repository.ImageRepository;
 import vn.tdtu.shop.repository.OrderItemRepository;
+import vn.tdtu.shop.repository.ProductDeletionRepository;
 import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.service.recommendation.CoPurchaseIndex;
+import vn.tdtu.shop.service.search.ProductSearchIndex;
+import vn.tdtu.shop.service.search.ProductSearchKey;
+import vn.tdtu.shop.service.search.SearchHits;
+import vn.tdtu.shop.service.snapshot.CatalogSnapshotStore;
+import vn.tdtu.shop.service.specification.ProductSpecification;
+import vn.tdtu.shop.service.trending.TrendingProductTracker;
+import vn.tdtu.shop.util.error.InputInvalidException;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
 import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.CursorPageDTO;
+import vn.tdtu.shop.util.response.ProductBatchDTO;
+import vn.tdtu.shop.util.response.ProductSearchResultDTO;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ProductDeletionRepository productDeletionRepository;
+    private final ProductCacheService productCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductViewCounter productViewCounter;
+    private final TrendingProductTracker trendingProductTracker;
+    private final CoPurchaseIndex coPurchaseIndex;
+    private final CatalogDictionary catalogDictionary;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final ImageRepository imageRepository;
+
+    @Value("${product.search.index.enabled:true}")
+    private boolean searchIndexEnabled;
+
+    @Value("${product.delete.soft:true}")
+    private boolean softDelete;
 
-    public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable).map(this::mapToDTO);
+    @Value("${product.batch.max-ids:100}")
+    private int maxBatchSize;
+
+    public Page<ProductSummaryDTO> getAllProducts(Pageable pageable) {
+        return productCacheService.getPage(pageable, productRepository::findAllSummaries);
     }
 
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Sản phẩm không tồn tại: " + id));
-        return mapToDTO(product);
+        ProductDTO product = findProductById(id);
+        recordView(id);
+        return product;
+    }
+
+    // Đọc qua cache, không tính lượt xem
+    public ProductDTO findProductById(Long id) {
+        return productCacheService.getProduct(id, key -> mapToDTO(productRepository.findByIdAndDeletedAtIsNull(key)
+                .orElseThrow(() -> new EntityNotFoundException("Sản phẩm không tồn tại: " + key))));
+    }
+
+    // Nhiều sản phẩm qua cache multi-get; id miss được nạp bằng một query IN và một query ảnh.
+    // Giữ thứ tự ids (bỏ id trùng), id không tồn tại hoặc đã xóa trả về trong missing
+    public ProductBatchDTO getProductsByIds(List<Long> ids) throws InputInvalidException {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinct.size() > maxBatchSize) {
+            throw new InputInvalidException("Tối đa " + maxBatchSize + " sản phẩm mỗi lần");
+        }
+        Map<Long, ProductDTO> byId = distinct.isEmpty() ? Map.of()
+                : productCacheService.getProducts(distinct, this::loadProductsByIds);
+        ProductBatchDTO batch = new ProductBatchDTO();
+        for (Long id : distinct) {
+            ProductDTO product = byId.get(id);
+            if (product != null) {
+                batch.getProducts().add(product);
+            } else {
+                batch.getMissing().add(id);
+            }
+        }
+        return batch;
+    }
+
+    private Map<Long, ProductDTO> loadProductsByIds(Collection<Long> ids) {
+        List<Product> products = productRepository.findByIdInAndDeletedAtIsNull(ids);
+        Map<Long, List<String>> images = loadImageUrls(products);
+        Map<Long, ProductDTO> byId = new HashMap<>();
+        for (Product product : products) {
+            byId.put(product.getId(), mapToDTO(product, images.getOrDefault(product.getId(), new ArrayList<>())));
+        }
+        return byId;
+    }
+
+    // Bảng quản trị cần đủ views / soldQuantity / category nên trả ProductDTO; ảnh của cả trang đọc bằng một query
+    public Page<ProductDTO> searchProductsForAdmin(String category, String brand, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Pageable pageable) {
+        Page<Product> products = productRepository.findByMultipleCriteria(catalogDictionary.categoryFilter(category),
+                catalogDictionary.brandFilter(brand), name, minPrice, maxPrice, pageable);
+        Map<Long, List<String>> images = loadImageUrls(products.getContent());
+        return products.map(product -> mapToDTO(product,
+                images.getOrDefault(product.getId(), new ArrayList<>())));
+    }
+
+    private Map<Long, List<String>> loadImageUrls(List<Product> products) {
+        Map<Long, List<String>> images = new HashMap<>();
+        if (!products.isEmpty()) {
+            for (Object[] row : imageRepository.findUrlsByProductIdIn(
+                    products.stream().map(Product::getId).collect(Collectors.toList()))) {
+                images.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return images;
+    }
+
+    public void recordView(Long id) {
+        productViewCounter.recordView(id);
+        trendingProductTracker.recordView(id);
     }
 
     public ProductDTO createProduct(ProductDTO dto) {
         Product product = new Product();
         mapToEntity(dto, product);
-        return mapToDTO(productRepository.save(product));
+        ProductDTO created = mapToDTO(productRepository.save(product));
+        eventPublisher.publishEvent(ProductChangedEvent.created(created));
+        return created;
     }
 
     public ProductDTO updateProduct(Long id, ProductDTO dto) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new EntityNotFoundException("Sản phẩm không tồn tại: " + id));
+        String previousCategory = catalogDictionary.categoryName(product.getCategoryId());
+        String previousBrand = catalogDictionary.brandName(product.getBrandId());
         mapToEntity(dto, product);
-        return mapToDTO(productRepository.save(product));
+        ProductDTO updated = mapToDTO(productRepository.save(product));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updated, previousCategory, previousBrand));
+        return updated;
     }
 
     @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
+        if (softDelete) {
+            // Chỉ cập nhật một dòng products; cart_items / order_items / images do ProductPurger dọn dần sau
+            Instant now = Instant.now();
+            if (productRepository.markDeleted(id, now) == 0) {
+                throw new EntityNotFoundException("Sản phẩm không tồn tại: " + id);
+            }
+            productDeletionRepository.save(new ProductDeletion(id, now));
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+            return;
+        }
+        if (!productRepository.existsByIdAndDeletedAtIsNull(id)) {
             throw new EntityNotFoundException("Sản phẩm không tồn tại: " + id);
         }
         cartItemRepository.deleteByProductId(id);
         orderItemRepository.deleteByProductId(id);
         productRepository.deleteById(id);
+        productDeletionRepository.save(new ProductDeletion(id, Instant.now()));
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    // Qua cache theo khóa đã chuẩn hóa: nhiều request giống nhau cùng lúc chỉ chạy truy vấn một lần
+    public Page<ProductSummaryDTO> searchProducts(String category, String brand, String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        ProductSearchKey key = ProductSearchKey.of(catalogDictionary.categoryFilter(category),
+                catalogDictionary.brandFilter(brand), name, minPrice, maxPrice, pageable);
+        return productCacheService.getSearchPage(key, this::loadSearchPage);
+    }
+
+    private Page<ProductSummaryDTO> loadSearchPage(ProductSearchKey key) {
+        if (useSearchIndex(key.getName(), key.getMinPrice(), key.getMaxPrice(), key.getPageable())) {
+            return searchWithIndex(key);
+        }
+        return productRepository.findSummariesByMultipleCriteria(key.getCategoryId(), key.getBrandId(), key.getName(),
+                key.getMinPrice(), key.getMaxPrice(), key.getPageable());
+    }
+
+    // Phân trang keyset: WHERE (col, id) > (?, ?) ORDER BY col, id LIMIT n, không OFFSET và không COUNT(*)
+    public CursorPageDTO<ProductSummaryDTO> scrollProducts(String category, String brand, String name, BigDecimal minPrice, BigDecimal maxPrice,
+            Sort sort, String cursor, int size, boolean withTotal) throws InputInvalidException {
+        Sort.Order order = ProductCursorCodec.resolveOrder(sort);
+        KeysetScrollPosition sortOrder = ProductCursorCodec.decode(order, cursor);
+        int limit = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        Specification<Product> spec = ProductSpecification.filterProducts(catalogDictionary.categoryFilter(category),
+                catalogDictionary.brandFilter(brand), name, minPrice, maxPrice);
+
+        // Lấy dư một dòng để biết còn trang sau; các cột summary đọc thẳng từ query, không nạp entity
+        List<Object[]> rows = productRepository.scrollSummaryRows(spec, order,
+                sortOrder.isInitial() ? null : sortOrder.getKeys(), limit + 1);
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        CursorPageDTO<ProductSummaryDTO> page = new CursorPageDTO<>();
+        page.setContent(rows.stream().map(this::mapRowToSummary).collect(Collectors.toList()));
+        page.setSize(rows.size());
+        page.setHasNext(hasNext);
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(order.getProperty(), last[6]);
+            keys.put("id", last[0]);
+            page.setNextCursor(ProductCursorCodec.encode(order, ScrollPosition.forward(keys)));
+        }
+        if (withTotal) {
+            page.setTotalElements(productRepository.count(spec));
+        }
+        return page;
+    }
+
+    // Dùng index khi lọc theo tên hoặc khoảng giá và client không yêu cầu sắp xếp riêng (kết quả xếp theo độ liên quan)
+    private boolean useSearchIndex(String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        boolean hasTextOrPrice = (name != null && !name.isBlank()) || minPrice != null || maxPrice != null;
+        return searchIndexEnabled
+                && hasTextOrPrice
+                && pageable.isPaged() && pageable.getSort().isUnsorted()
+                && productSearchIndex.isReady();
     }
 
-    public Page<ProductDTO> searchProducts(String category, String brand, String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.findByMultipleCriteria(category, brand, name, minPrice, maxPrice, pageable)
-                .map(this::mapToDTO);
+    private Page<ProductSummaryDTO> searchWithIndex(ProductSearchKey key) {
+        Pageable pageable = key.getPageable();
+        SearchHits hits = productSearchIndex.search(key.getName(), key.getCategoryId(), key.getBrandId(),
+                key.getMinPrice(), key.getMaxPrice(), (int) pageable.getOffset(), pageable.getPageSize(), false);
+        return new PageImpl<>(loadSummariesInOrder(hits.getProductIds()), pageable, hits.getTotalHits());
+    }
+
+    public ProductSearchResultDTO searchProductsWithFacets(String category, String brand, String name, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return new ProductSearchResultDTO(searchProducts(category, brand, name, minPrice, maxPrice, pageable), null);
+        }
+        if (useSearchIndex(name, minPrice, maxPrice, pageable)) {
+            SearchHits hits = productSearchIndex.search(name, catalogDictionary.categoryFilter(category),
+                    catalogDictionary.brandFilter(brand), minPrice, maxPrice,
+                    (int) pageable.getOffset(), pageable.getPageSize(), true);
+            Page<ProductSummaryDTO> page = new PageImpl<>(loadSummariesInOrder(hits.getProductIds()), pageable, hits.getTotalHits());
+            return new ProductSearchResultDTO(page, hits.getFacets());
+        }
+        // Trang kết quả vẫn lấy từ DB (có sort riêng), chỉ đếm facet trên index
+        SearchHits facetHits = productSearchIndex.search(name, catalogDictionary.categoryFilter(category),
+                catalogDictionary.brandFilter(brand), minPrice, maxPrice, 0, 0, true);
+        return new ProductSearchResultDTO(searchProducts(category, brand, name, minPrice, maxPrice, pageable),
+                facetHits.getFacets());
+    }
+
+    // Đọc từ snapshot catalog trước, id thiếu (mới / vừa sửa) lấy bằng một query projection; giữ nguyên thứ tự id đầu vào
+    private List<ProductSummaryDTO> loadSummariesInOrder(List<Long> ids) {
+        return readSummariesInOrder(ids, missing -> productRepository.findSummariesByIdIn(missing).stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, Function.identity())));
+    }
+
+    public List<ProductSummaryDTO> getFrequentlyBoughtTogether(Long productId, int limit) {
+        return loadCachedSummariesInOrder(coPurchaseIndex.partnersOf(productId, limit));
+    }
+
+    public List<ProductSummaryDTO> getFrequentlyBoughtTogether(List<Long> productIds, int limit) {
+        return loadCachedSummariesInOrder(coPurchaseIndex.partnersOf(productIds, limit));
+    }
+
+    // Như loadSummariesInOrder nhưng id thiếu trong snapshot đi qua cache summary: danh sách gợi ý lặp lại nhiều
+    private List<ProductSummaryDTO> loadCachedSummariesInOrder(List<Long> ids) {
+        return readSummariesInOrder(ids,
+                missing -> productCacheService.getSummaries(missing, productRepository::findSummariesByIdIn));
+    }
+
+    private List<ProductSummaryDTO> readSummariesInOrder(List<Long> ids,
+            Function<List<Long>, Map<Long, ProductSummaryDTO>> fallback) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProductSummaryDTO> byId = catalogSnapshotStore.getSummaries(ids);
+        if (byId.size() < ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !byId.containsKey(id)).collect(Collectors.toList());
+            byId.putAll(fallback.apply(missing));
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Dòng của ProductRepository.scrollSummaryRows: id, name, price, brandId, categoryId, primaryImageUrl, ...
+    private ProductSummaryDTO mapRowToSummary(Object[] row) {
+        return new ProductSummaryDTO((Long) row[0], (String) row[1], (BigDecimal) row[2],
+                catalogDictionary.brandName((Integer) row[3]), catalogDictionary.categoryName((Integer) row[4]),
+                (String) row[5]);
     }
 
     private ProductDTO mapToDTO(Product product) {
+        return mapToDTO(product, product.getImages().stream().map(Image::getUrl).collect(Collectors.toList()));
+    }
+
+    // package-private để ProductResponseBenchmark (src/test) đo đúng đường map của cache miss
+    ProductDTO mapToDTO(Product product, List<String> images) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setPrice(product.getPrice());
-        dto.setBrand(product.getBrand());
-        dto.setCategory(product.getCategory());
+        dto.setBrand(catalogDictionary.brandName(product.getBrandId()));
+        dto.setCategory(catalogDictionary.categoryName(product.getCategoryId()));
         dto.setViews(product.getViews());
         dto.setSoldQuantity(product.getSoldQuantity());
         dto.setShortDescription(product.getShortDescription());
         dto.setDetailedDescription(product.getDetailedDescription());
-        dto.setImages(product.getImages().stream().map(Image::getUrl).collect(Collectors.toList()));
+        dto.setImages(images);
         return dto;
     }
 
     private void mapToEntity(ProductDTO dto, Product product) {
         product.setName(dto.getName());
         product.setPrice(dto.getPrice());
-        product.setBrand(dto.getBrand());
-        product.setCategory(dto.getCategory());
+        product.setBrandId(catalogDictionary.encodeBrand(dto.getBrand()));
+        product.setCategoryId(catalogDictionary.encodeCategory(dto.getCategory()));
         product.setShortDescription(dto.getShortDescription());
         product.setDetailedDescription(dto.getDetailedDescription());
         product.setSoldQuantity(dto.getSoldQuantity() != null ? dto.getSoldQuantity() : 0L);
-        product.setViews(dto.getViews() != null ? dto.getViews() : 0L);
-        product.getImages().clear();
-        product.getImages().addAll(dto.getImages().stream()
-                .map(url -> {
-                    Image image = new Image();
-                    image.setUrl(url);
-                    image.setProduct(product);
-                    return image;
-                }).collect(Collectors.toList()));
+        // Lượt xem chỉ nhận từ DTO khi tạo mới; khi sửa, form quản trị gửi lại số đã cũ
+        if (product.getId() == null) {
+            product.setViews(dto.getViews() != null ? dto.getViews() : 0L);
+        }
+        syncImages(product, dto.getImages() != null ? dto.getImages() : List.of());
+    }
+
+    // Khoảng cách sortOrder giữa hai ảnh liền nhau khi đánh số lại
+    static final int IMAGE_SORT_GAP = 1024;
+
+    // Đối chiếu theo url: ảnh giữ nguyên không sinh câu SQL nào, url bỏ đi bị DELETE, url mới được INSERT.
+    // Ảnh giữ lại không đổi sortOrder nếu thuộc dãy con dài nhất vẫn đúng thứ tự cũ; chỉ các ảnh bị đổi chỗ
+    // và ảnh mới nhận sortOrder nằm giữa hai láng giềng, nên xóa / chèn ở đầu danh sách chỉ tốn đúng một câu.
+    // Hết khoảng trống giữa hai láng giềng (vd. dữ liệu cũ sortOrder đều 0) thì đánh số lại cả sản phẩm một lần.
+    static void syncImages(Product product, List<String> urls) {
+        List<Image> images = product.getImages();
+        Map<String, Deque<Image>> byUrl = new HashMap<>();
+        Map<Image, Integer> oldIndex = new IdentityHashMap<>();
+        for (int i = 0; i < images.size(); i++) {
+            byUrl.computeIfAbsent(images.get(i).getUrl(), key -> new ArrayDeque<>()).add(images.get(i));
+            oldIndex.put(images.get(i), i);
+        }
+
+        // slots[i] là ảnh hiển thị ở vị trí i: ảnh cũ khớp url hoặc ảnh mới
+        List<Image> slots = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            Deque<Image> matches = byUrl.get(url);
+            Image image = matches == null ? null : matches.poll();
+            if (image == null) {
+                image = new Image();
+                image.setUrl(url);
+                image.setProduct(product);
+            }
+            slots.add(image);
+        }
+        Set<Image> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(slots);
+        images.removeIf(image -> !kept.contains(image));
+
+        boolean[] stays = longestIncreasingRun(slots, oldIndex);
+        if (!assignGapSortOrders(slots, stays)) {
+            for (int i = 0; i < slots.size(); i++) {
+                if (slots.get(i).getSortOrder() != i * IMAGE_SORT_GAP) {
+                    slots.get(i).setSortOrder(i * IMAGE_SORT_GAP);
+                }
+            }
+        }
+        for (Image image : slots) {
+            if (!oldIndex.containsKey(image)) {
+                images.add(image);
+            }
+        }
+        // Collection phía mappedBy: sắp lại trong bộ nhớ không sinh SQL
+        images.sort(Comparator.comparingInt(Image::getSortOrder).thenComparing(slots::indexOf));
+        product.setPrimaryImageUrl(urls.isEmpty() ? null : urls.get(0));
+    }
+
+    // Đánh dấu các ảnh cũ tạo thành dãy con dài nhất có thứ tự cũ tăng dần (patience sorting, O(n log n))
+    private static boolean[] longestIncreasingRun(List<Image> slots, Map<Image, Integer> oldIndex) {
+        int n = slots.size();
+        int[] tailSlot = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            Integer rank = oldIndex.get(slots.get(i));
+            if (rank == null) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (oldIndex.get(slots.get(tailSlot[mid])) < rank) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tailSlot[low - 1] : -1;
+            tailSlot[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] stays = new boolean[n];
+        for (int i = length > 0 ? tailSlot[length - 1] : -1; i >= 0; i = previous[i]) {
+            stays[i] = true;
+        }
+        return stays;
+    }
+
+    // Gán sortOrder cho các ảnh không thuộc dãy giữ nguyên, nằm giữa hai láng giềng giữ nguyên gần nhất.
+    // false nếu một khoảng nào đó không đủ chỗ (hoặc vượt phạm vi int)
+    private static boolean assignGapSortOrders(List<Image> slots, boolean[] stays) {
+        int i = 0;
+        while (i < slots.size()) {
+            if (stays[i]) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < slots.size() && !stays[end]) {
+                end++;
+            }
+            Long before = i > 0 ? (long) slots.get(i - 1).getSortOrder() : null;
+            Long after = end < slots.size() ? (long) slots.get(end).getSortOrder() : null;
+            int count = end - i;
+            long step;
+            long first;
+            if (before == null && after == null) {
+                step = IMAGE_SORT_GAP;
+                first = 0;
+            } else if (before == null) {
+                step = IMAGE_SORT_GAP;
+                first = after - (long) count * step;
+            } else if (after == null) {
+                step = IMAGE_SORT_GAP;
+                first = before + step;
+            } else {
+                step = (after - before) / (count + 1);
+                first = before + step;
+            }
+            if (step < 1 || first < Integer.MIN_VALUE || first + (count - 1) * step > Integer.MAX_VALUE) {
+                return false;
+            }
+            for (int k = 0; k < count; k++) {
+                int sortOrder = (int) (first + k * step);
+                if (slots.get(i + k).getSortOrder() != sortOrder) {
+                    slots.get(i + k).setSortOrder(sortOrder);
+                }
+            }
+            i = end;
+        }
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package vn.tdtu.shop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Giữ ETag / Last-Modified của từng sản phẩm và của toàn catalog trong bộ nhớ,
+// để request có If-None-Match còn hợp lệ được trả 304 mà không cần đọc DB
+@Service
+@RequiredArgsConstructor
+public class ProductValidatorIndex {
+
+    private final ProductRepository productRepository;
+
+    // id sản phẩm -> thời điểm sửa cuối (epoch ms)
+    private final Map<Long, Long> modifiedAt = new ConcurrentHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLong catalogModifiedAt = new AtomicLong();
+
+    // Đơn hàng đổi validator qua OrderPlacedEvent, nhưng lượt xem (ProductViewCounter) và popularity
+    // (TrendingProductTracker) được ghi dồn không có event: gắn khung thời gian dài bằng ttl của cache vào validator
+    // để số liệu đó cũ tối đa khoảng hai ttl. bootId phòng trường hợp validator lặp lại sau khi khởi động lại.
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private volatile boolean ready;
+
+    @Value("${product.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = productRepository.findAllModificationTimes();
+        long latest = 0;
+        for (Object[] row : rows) {
+            long time = ((Instant) row[1]).toEpochMilli();
+            // merge với max để không ghi đè thay đổi đến trong lúc đang nạp
+            modifiedAt.merge((Long) row[0], time, Math::max);
+            latest = Math.max(latest, time);
+        }
+        catalogModifiedAt.accumulateAndGet(latest, Math::max);
+        catalogVersion.incrementAndGet();
+        ready = true;
+    }
+
+    // Chạy sau cache và search index (@Order(0)): nếu đổi validator trước, request chen giữa
+    // sẽ gắn ETag mới cho dữ liệu cũ và client giữ dữ liệu cũ mãi
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long now = System.currentTimeMillis();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            modifiedAt.remove(event.getProductId());
+        } else {
+            // Luôn tăng kể cả khi hai lần sửa rơi vào cùng một ms
+            modifiedAt.merge(event.getProductId(), now, (previous, current) -> Math.max(previous + 1, current));
+        }
+        catalogModifiedAt.accumulateAndGet(now, Math::max);
+        catalogVersion.incrementAndGet();
+    }
+
+    // Chạy sau khi ProductCacheService / ProductResponseCache bỏ bản cũ của các sản phẩm trong đơn
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long now = System.currentTimeMillis();
+        for (Long id : event.getQuantities().keySet()) {
+            // computeIfPresent: sản phẩm đã xóa không được thêm lại
+            modifiedAt.computeIfPresent(id, (key, previous) -> Math.max(previous + 1, now));
+        }
+        catalogModifiedAt.accumulateAndGet(now, Math::max);
+        catalogVersion.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        long now = System.currentTimeMillis();
+        for (Long id : event.getProductIds()) {
+            modifiedAt.merge(id, now, Math::max);
+        }
+        catalogModifiedAt.accumulateAndGet(now, Math::max);
+        catalogVersion.incrementAndGet();
+    }
+
+    // null nếu chưa nạp xong hoặc không biết sản phẩm: khi đó controller trả nội dung bình thường
+    public Validator forProduct(Long id) {
+        if (!ready) {
+            return null;
+        }
+        Long time = modifiedAt.get(id);
+        if (time == null) {
+            return null;
+        }
+        long bucketStart = bucketStart();
+        return new Validator("\"p" + id + "-" + Long.toString(time, 36) + "-" + bootId + "-"
+                + Long.toString(bucketStart, 36) + "\"", Math.max(time, bucketStart));
+    }
+
+    // Dùng chung cho mọi trang danh sách/tìm kiếm: bất kỳ sản phẩm nào đổi thì tất cả các trang đều đổi version
+    public Validator forCatalog() {
+        if (!ready) {
+            return null;
+        }
+        long bucketStart = bucketStart();
+        return new Validator("\"c" + Long.toString(catalogVersion.get(), 36) + "-" + bootId + "-"
+                + Long.toString(bucketStart, 36) + "\"", Math.max(catalogModifiedAt.get(), bucketStart));
+    }
+
+    // Đầu khung thời gian hiện tại (epoch ms); Last-Modified cũng tiến theo để If-Modified-Since không giữ số liệu cũ
+    private long bucketStart() {
+        long bucketMs = Math.max(1, ttlSeconds) * 1000;
+        long now = System.currentTimeMillis();
+        return now - now % bucketMs;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Validator {
+        private final String etag;
+        private final long lastModified;
+    }
+}
@@ -0,0 +1,77 @@
+package vn.tdtu.shop.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ProductViewCounter {
+
+    private static final String FLUSH_SQL = "UPDATE products SET views = views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Mỗi sản phẩm một LongAdder (tự chia stripe theo luồng), không có lock trên đường đọc trang sản phẩm
+    private final Map<Long, ViewCount> counters = new ConcurrentHashMap<>();
+
+    public ProductViewCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void recordView(Long productId) {
+        counters.computeIfAbsent(productId, id -> new ViewCount()).views.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${product.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+
+        // Sắp xếp theo id để các lần flush khóa row theo cùng một thứ tự
+        counters.keySet().stream().sorted().forEach(id -> {
+            ViewCount count = counters.get(id);
+            long delta = count.views.sum() - count.flushed;
+            if (delta > 0) {
+                ids.add(id);
+                deltas.add(delta);
+                batchArgs.add(new Object[] { delta, id });
+            }
+        });
+
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+
+        // Chỉ ghi nhận đã flush khi batch commit thành công, lỗi thì lần sau gửi lại
+        for (int i = 0; i < ids.size(); i++) {
+            counters.get(ids.get(i)).flushed += deltas.get(i);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        System.out.println(">>> FLUSH PRODUCT VIEWS BEFORE SHUTDOWN");
+        flush();
+    }
+
+    private static final class ViewCount {
+        private final LongAdder views = new LongAdder();
+
+        // Chỉ được đọc/ghi trong flush() (synchronized)
+        private long flushed;
+    }
+}
@@ -0,0 +1,127 @@
+package vn.tdtu.shop.service.dictionary;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.tdtu.shop.domain.Brand;
+import vn.tdtu.shop.domain.Category;
+import vn.tdtu.shop.service.EntityIdAllocator;
+
+import java.util.List;
+
+// Từ điển category / brand trong bộ nhớ: products lưu id kiểu int, lọc và facet so sánh int,
+// tên chỉ được giải mã khi trả dữ liệu ra ngoài. Cả hai bảng chỉ vài chục dòng nên nạp toàn bộ lúc khởi động.
+@Service
+public class CatalogDictionary {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final EntityIdAllocator idAllocator;
+    private final DimensionDictionary categories = new DimensionDictionary("categories", Category.class);
+    private final DimensionDictionary brands = new DimensionDictionary("brands", Brand.class);
+
+    public CatalogDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EntityIdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idAllocator = idAllocator;
+    }
+
+    @PostConstruct
+    public void load() {
+        load(categories);
+        load(brands);
+        System.out.println(">>> CATALOG DICTIONARY LOADED: " + categories.size() + " categories, "
+                + brands.size() + " brands");
+    }
+
+    // Dùng khi ghi sản phẩm: giá trị mới được thêm vào bảng từ điển
+    public Integer encodeCategory(String name) {
+        return encode(categories, name);
+    }
+
+    public Integer encodeBrand(String name) {
+        return encode(brands, name);
+    }
+
+    // Dùng khi lọc: null = không lọc, giá trị chưa có trong từ điển trả về NO_MATCH
+    public Integer categoryFilter(String name) {
+        return filter(categories, name);
+    }
+
+    public Integer brandFilter(String name) {
+        return filter(brands, name);
+    }
+
+    public String categoryName(Integer id) {
+        return decode(categories, id);
+    }
+
+    public String brandName(Integer id) {
+        return decode(brands, id);
+    }
+
+    private void load(DimensionDictionary dictionary) {
+        jdbcTemplate.query("SELECT id, name FROM " + dictionary.getTable(),
+                rs -> {
+                    dictionary.put(rs.getInt(1), rs.getString(2));
+                });
+    }
+
+    private static Integer filter(DimensionDictionary dictionary, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        Integer id = dictionary.find(name);
+        return id != null ? id : DimensionDictionary.NO_MATCH;
+    }
+
+    // Giá trị mới được ghi trong transaction riêng: nếu transaction của sản phẩm rollback thì dòng từ điển vẫn còn,
+    // không để bộ nhớ giữ id mà bảng không có. INSERT IGNORE + SELECT lại theo tên xử lý trường hợp node khác thêm trước.
+    private Integer encode(DimensionDictionary dictionary, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        Integer id = dictionary.find(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (dictionary) {
+            id = dictionary.find(name);
+            if (id != null) {
+                return id;
+            }
+            long candidate = idAllocator.allocate(dictionary.getEntityClass(), 1)[0];
+            Object[] stored = requiresNew.execute(status -> {
+                jdbcTemplate.update("INSERT IGNORE INTO " + dictionary.getTable() + " (id, name) VALUES (?, ?)",
+                        candidate, name.trim());
+                return jdbcTemplate.queryForObject("SELECT id, name FROM " + dictionary.getTable() + " WHERE name = ?",
+                        (rs, rowNum) -> new Object[] { rs.getInt(1), rs.getString(2) }, name.trim());
+            });
+            dictionary.put((Integer) stored[0], (String) stored[1]);
+            return (Integer) stored[0];
+        }
+    }
+
+    // Id do node khác thêm sau khi node này khởi động: đọc bổ sung từ bảng
+    private String decode(DimensionDictionary dictionary, Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = dictionary.name(id);
+        if (name != null) {
+            return name;
+        }
+        List<String> rows = jdbcTemplate.queryForList("SELECT name FROM " + dictionary.getTable() + " WHERE id = ?",
+                String.class, id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        dictionary.put(id, rows.get(0));
+        return rows.get(0);
+    }
+}
@@ -0,0 +1,61 @@
+package vn.tdtu.shop.service.dictionary;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ánh xạ hai chiều tên <-> id cho một chiều dữ liệu (category, brand).
+// Đọc không khóa; ghi chỉ xảy ra khi gặp giá trị mới và được CatalogDictionary tuần tự hóa.
+public class DimensionDictionary {
+
+    // Id không có trong bảng nào: lọc theo giá trị chưa từng gặp phải ra kết quả rỗng chứ không phải bỏ qua bộ lọc
+    public static final int NO_MATCH = 0;
+
+    private final String table;
+    private final Class<?> entityClass;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+
+    public DimensionDictionary(String table, Class<?> entityClass) {
+        this.table = table;
+        this.entityClass = entityClass;
+    }
+
+    // So khớp không phân biệt hoa thường, giống collation của cột name trong MySQL
+    public static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public Integer find(String name) {
+        return name == null || name.isBlank() ? null : ids.get(key(name));
+    }
+
+    public String name(int id) {
+        String[] snapshot = names;
+        return id > 0 && id < snapshot.length ? snapshot[id] : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // Ghi tên vào mảng trước rồi mới công bố id, nên ai tìm thấy id thì cũng đọc được tên
+    synchronized void put(int id, String name) {
+        String[] current = names;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        }
+        current[id] = name;
+        names = current;
+        ids.put(key(name), id);
+    }
+}
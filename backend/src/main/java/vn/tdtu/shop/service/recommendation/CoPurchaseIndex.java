@@ -0,0 +1,229 @@
+package vn.tdtu.shop.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import vn.tdtu.shop.util.constant.OrderStatus;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+
+// Ma trận đồng xuất hiện thưa: sản phẩm -> (sản phẩm mua cùng đơn -> số đơn).
+// Dựng một lần từ lịch sử đơn hàng bằng nhiều luồng quét song song theo khoảng id đơn,
+// sau đó cộng dồn theo OrderPlacedEvent.
+@Service
+public class CoPurchaseIndex {
+
+    private static final String ORDER_ID_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM orders";
+    private static final String ORDER_ITEMS_SQL = "SELECT oi.order_id, oi.product_id FROM order_items oi "
+            + "JOIN orders o ON o.id = oi.order_id "
+            + "WHERE oi.order_id BETWEEN ? AND ? AND o.status <> ? "
+            + "ORDER BY oi.order_id";
+
+    // Đơn quá nhiều sản phẩm (mua sỉ) sinh ra k^2 cặp mà ít giá trị gợi ý, chỉ lấy các sản phẩm đầu
+    private static final int MAX_ITEMS_PER_ORDER = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPartners;
+    private final int bootstrapThreads;
+    private final long bootstrapRangeSize;
+
+    private final Map<Long, Partners> matrix = new ConcurrentHashMap<>();
+
+    // Đơn có id <= mốc này đã được tính khi quét lịch sử, event của chúng bị bỏ qua để không đếm hai lần
+    private volatile long bootstrapMaxOrderId = Long.MAX_VALUE;
+
+    public CoPurchaseIndex(
+            JdbcTemplate jdbcTemplate,
+            @Value("${product.co-purchase.max-partners:20}") int maxPartners,
+            @Value("${product.co-purchase.bootstrap-threads:4}") int bootstrapThreads,
+            @Value("${product.co-purchase.bootstrap-range-size:20000}") long bootstrapRangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPartners = maxPartners;
+        this.bootstrapThreads = bootstrapThreads;
+        this.bootstrapRangeSize = bootstrapRangeSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Long[] bounds = jdbcTemplate.queryForObject(ORDER_ID_RANGE_SQL,
+                (rs, rowNum) -> new Long[] { rs.getObject(1, Long.class), rs.getObject(2, Long.class) });
+        if (bounds == null || bounds[0] == null) {
+            bootstrapMaxOrderId = 0;
+            return;
+        }
+        bootstrapMaxOrderId = bounds[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(bootstrapThreads);
+        try {
+            List<Future<Map<Long, LongIntHashMap>>> parts = new ArrayList<>();
+            for (long from = bounds[0]; from <= bounds[1]; from += bootstrapRangeSize) {
+                long rangeStart = from;
+                long rangeEnd = Math.min(bounds[1], from + bootstrapRangeSize - 1);
+                parts.add(executor.submit(() -> scanRange(rangeStart, rangeEnd)));
+            }
+            // Mỗi luồng đếm vào ma trận riêng rồi mới gộp, các luồng quét không tranh lock với nhau
+            for (Future<Map<Long, LongIntHashMap>> part : parts) {
+                part.get().forEach((productId, counts) -> {
+                    Partners partners = matrix.computeIfAbsent(productId, id -> new Partners());
+                    synchronized (partners) {
+                        counts.forEach(partners.counts::addTo);
+                        partners.top = null;
+                    }
+                });
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Không dựng được ma trận mua cùng", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println(">>> CO-PURCHASE INDEX BUILT: " + matrix.size() + " products in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (event.getOrderId() <= bootstrapMaxOrderId) {
+            return;
+        }
+        long[] productIds = event.getQuantities().keySet().stream().mapToLong(Long::longValue).toArray();
+        forEachPair(productIds, (productId, partnerId) -> {
+            Partners partners = matrix.computeIfAbsent(productId, id -> new Partners());
+            synchronized (partners) {
+                partners.counts.addTo(partnerId, 1);
+                partners.top = null;
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Sản phẩm đã xóa vẫn có thể nằm trong danh sách của sản phẩm khác; bị lọc khi nạp summary
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            matrix.remove(event.getProductId());
+        }
+    }
+
+    // Top sản phẩm hay được mua cùng productId, nhiều đơn chung trước
+    public List<Long> partnersOf(Long productId, int limit) {
+        Partners partners = matrix.get(productId);
+        if (partners == null) {
+            return List.of();
+        }
+        long[] top;
+        synchronized (partners) {
+            if (partners.top == null) {
+                partners.top = topOf(partners.counts, Set.of(), maxPartners);
+            }
+            top = partners.top;
+        }
+        return toList(top, limit);
+    }
+
+    // Gợi ý cho cả giỏ hàng: cộng số đơn chung với từng sản phẩm trong giỏ, bỏ các sản phẩm đã có
+    public List<Long> partnersOf(Collection<Long> productIds, int limit) {
+        Set<Long> exclude = new HashSet<>(productIds);
+        LongIntHashMap combined = new LongIntHashMap();
+        for (Long productId : exclude) {
+            Partners partners = matrix.get(productId);
+            if (partners != null) {
+                synchronized (partners) {
+                    partners.counts.forEach(combined::addTo);
+                }
+            }
+        }
+        return toList(topOf(combined, exclude, Math.min(limit, maxPartners)), limit);
+    }
+
+    private Map<Long, LongIntHashMap> scanRange(long fromOrderId, long toOrderId) {
+        Map<Long, LongIntHashMap> local = new HashMap<>();
+        long[] orderItems = new long[MAX_ITEMS_PER_ORDER];
+        int[] itemCount = { 0 };
+        long[] currentOrder = { 0 };
+
+        PairConsumer addPair = (productId, partnerId) ->
+                local.computeIfAbsent(productId, id -> new LongIntHashMap()).addTo(partnerId, 1);
+
+        jdbcTemplate.query(ORDER_ITEMS_SQL, rs -> {
+            long orderId = rs.getLong(1);
+            if (orderId != currentOrder[0]) {
+                forEachPair(distinct(orderItems, itemCount[0]), addPair);
+                currentOrder[0] = orderId;
+                itemCount[0] = 0;
+            }
+            if (itemCount[0] < MAX_ITEMS_PER_ORDER) {
+                orderItems[itemCount[0]++] = rs.getLong(2);
+            }
+        }, fromOrderId, toOrderId, OrderStatus.CANCELLED.ordinal());
+        forEachPair(distinct(orderItems, itemCount[0]), addPair);
+        return local;
+    }
+
+    private static long[] distinct(long[] items, int count) {
+        return Arrays.stream(items, 0, count).distinct().toArray();
+    }
+
+    private interface PairConsumer {
+        void accept(long productId, long partnerId);
+    }
+
+    // Mọi cặp có thứ tự (a, b) với a != b trong một đơn, productIds không trùng nhau
+    private static void forEachPair(long[] productIds, PairConsumer consumer) {
+        int n = Math.min(productIds.length, MAX_ITEMS_PER_ORDER);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    consumer.accept(productIds[i], productIds[j]);
+                }
+            }
+        }
+    }
+
+    // Chọn top-k theo số đơn giảm dần, bằng nhau thì id nhỏ trước
+    private static long[] topOf(LongIntHashMap counts, Set<Long> exclude, int k) {
+        List<long[]> candidates = new ArrayList<>(counts.size());
+        counts.forEach((partnerId, count) -> {
+            if (!exclude.contains(partnerId)) {
+                candidates.add(new long[] { partnerId, count });
+            }
+        });
+        candidates.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+        long[] top = new long[Math.min(k, candidates.size())];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = candidates.get(i)[0];
+        }
+        return top;
+    }
+
+    private static List<Long> toList(long[] ids, int limit) {
+        List<Long> result = new ArrayList<>(Math.min(ids.length, Math.max(0, limit)));
+        for (int i = 0; i < ids.length && i < limit; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    private static final class Partners {
+        private final LongIntHashMap counts = new LongIntHashMap();
+        // Cache top-K, null khi counts vừa thay đổi
+        private long[] top;
+    }
+}
@@ -0,0 +1,302 @@
+package vn.tdtu.shop.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// Radix trie (cạnh nén thành chuỗi) trên key đã chuẩn hóa. Mỗi node giữ sẵn top-K entry của cả cây con,
+// nên tra một tiền tố chỉ tốn O(độ dài tiền tố), không phải duyệt cây con.
+// Khi thêm/xóa/đổi điểm chỉ tính lại top-K trên đường từ node đó về gốc.
+// Không thread-safe, ProductSuggester giữ lock khi gọi.
+public class PrefixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_KEYS = new char[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    // Điểm giảm dần, bằng điểm thì theo nhãn để kết quả ổn định
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingLong((Entry e) -> e.score).reversed()
+            .thenComparing(e -> e.label);
+
+    private final int topSize;
+    private Node root = new Node("");
+
+    public PrefixTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    public static final class Entry {
+        private final String label;
+        private final String type;
+        private final Long productId;
+        private long score;
+
+        public Entry(String label, String type, Long productId, long score) {
+            this.label = label;
+            this.type = type;
+            this.productId = productId;
+            this.score = score;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        // Sau khi đổi điểm phải gọi refresh() với mọi key chứa entry
+        public void addScore(long delta) {
+            score += delta;
+        }
+    }
+
+    public void clear() {
+        root = new Node("");
+    }
+
+    // bulk = true khi nạp lại toàn bộ: bỏ qua tính top-K từng lần, gọi rebuildTops() một lần ở cuối
+    public void insert(String key, Entry entry, boolean bulk) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int idx = node.childIndex(key.charAt(i));
+            if (idx < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[idx];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Tách cạnh: "iphone" + key "ipad" -> "ip" -> {"hone", "ad"}
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                node.children[idx] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        node.entries = append(node.entries, entry);
+        if (!bulk) {
+            recompute(path);
+        }
+    }
+
+    public void remove(String key, Entry entry) {
+        List<Node> path = findPath(key);
+        if (path == null) {
+            return;
+        }
+        Node node = path.get(path.size() - 1);
+        node.entries = without(node.entries, entry);
+        // Bỏ node lá rỗng để cây không phình ra sau nhiều lần sửa tên
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            if (current.entries.length > 0 || current.children.length > 0) {
+                break;
+            }
+            path.get(i - 1).removeChild(current);
+            path.remove(i);
+        }
+        recompute(path);
+    }
+
+    // Gọi sau khi đã đổi score của entry tại key
+    public void refresh(String key) {
+        List<Node> path = findPath(key);
+        if (path != null) {
+            recompute(path);
+        }
+    }
+
+    public List<Entry> complete(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int idx = node.childIndex(prefix.charAt(i));
+            if (idx < 0) {
+                return Collections.emptyList();
+            }
+            Node child = node.children[idx];
+            int remaining = prefix.length() - i;
+            if (remaining <= child.label.length()) {
+                // Tiền tố kết thúc giữa cạnh: mọi key trong cây con của child đều khớp
+                if (!child.label.startsWith(prefix.substring(i))) {
+                    return Collections.emptyList();
+                }
+                node = child;
+                break;
+            }
+            if (!prefix.startsWith(child.label, i)) {
+                return Collections.emptyList();
+            }
+            node = child;
+            i += child.label.length();
+        }
+        Entry[] top = node.top;
+        return Arrays.asList(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+
+    public void rebuildTops() {
+        rebuildTops(root);
+    }
+
+    private Entry[] rebuildTops(Node node) {
+        for (Node child : node.children) {
+            rebuildTops(child);
+        }
+        node.top = computeTop(node);
+        return node.top;
+    }
+
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int idx = node.childIndex(key.charAt(i));
+            if (idx < 0) {
+                return null;
+            }
+            Node child = node.children[idx];
+            if (!key.startsWith(child.label, i)) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length();
+        }
+        return path;
+    }
+
+    private void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            node.top = computeTop(node);
+        }
+    }
+
+    // Gộp entry của chính node với top của các con; một entry có thể xuất hiện ở nhiều key
+    // (tên đầy đủ và từng từ trong tên) nên loại trùng theo tham chiếu
+    private Entry[] computeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(Arrays.asList(node.entries));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_SCORE);
+        List<Entry> top = new ArrayList<>(Math.min(topSize, candidates.size()));
+        for (Entry candidate : candidates) {
+            if (top.size() == topSize) {
+                break;
+            }
+            if (!containsSame(top, candidate)) {
+                top.add(candidate);
+            }
+        }
+        return top.toArray(NO_ENTRIES);
+    }
+
+    private static boolean containsSame(List<Entry> entries, Entry entry) {
+        for (Entry existing : entries) {
+            if (existing == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                Entry[] result = new Entry[entries.length - 1];
+                System.arraycopy(entries, 0, result, 0, i);
+                System.arraycopy(entries, i + 1, result, i, entries.length - i - 1);
+                return result;
+            }
+        }
+        return entries;
+    }
+
+    private static final class Node {
+        private String label;
+        // Ký tự đầu của cạnh con, sắp xếp tăng dần để tìm bằng binary search
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int childIndex(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? idx : -1;
+        }
+
+        private void addChild(Node child) {
+            char c = child.label.charAt(0);
+            int pos = -(Arrays.binarySearch(keys, c) + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newKeys[pos] = c;
+            newChildren[pos] = child;
+            System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        private void removeChild(Node child) {
+            int idx = childIndex(child.label.charAt(0));
+            if (idx < 0 || children[idx] != child) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, idx);
+            System.arraycopy(children, 0, newChildren, 0, idx);
+            System.arraycopy(keys, idx + 1, newKeys, idx, keys.length - idx - 1);
+            System.arraycopy(children, idx + 1, newChildren, idx, children.length - idx - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package vn.tdtu.shop.service.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Mảng (giá theo đơn vị nhỏ nhất, ordinal) sắp xếp tăng dần, tìm khoảng giá bằng binary search.
+// Không thread-safe, ProductSearchIndex giữ lock khi gọi.
+public class PriceIndex {
+
+    private long[] prices = new long[16];
+    private int[] ords = new int[16];
+    private int size;
+    private boolean sorted = true;
+
+    private static final BigDecimal MIN_MINOR = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_MINOR = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    // Giá ngoài khoảng long (vd. minPrice=1e30 do client gửi) được kẹp về biên thay vì ném ArithmeticException
+    public static long toMinorUnits(BigDecimal price, RoundingMode rounding) {
+        BigDecimal minor = price.movePointRight(2).setScale(0, rounding);
+        if (minor.compareTo(MAX_MINOR) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (minor.compareTo(MIN_MINOR) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return minor.longValue();
+    }
+
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    public void add(long price, int ord) {
+        ensureCapacity();
+        int pos = insertionPoint(price, ord);
+        System.arraycopy(prices, pos, prices, pos + 1, size - pos);
+        System.arraycopy(ords, pos, ords, pos + 1, size - pos);
+        prices[pos] = price;
+        ords[pos] = ord;
+        size++;
+    }
+
+    // Dùng khi nạp lại toàn bộ: thêm cuối mảng rồi sort một lần thay vì chèn từng phần tử
+    public void append(long price, int ord) {
+        ensureCapacity();
+        prices[size] = price;
+        ords[size] = ord;
+        size++;
+        sorted = false;
+    }
+
+    public void sort() {
+        if (!sorted) {
+            quickSort(0, size - 1);
+            sorted = true;
+        }
+    }
+
+    public void remove(long price, int ord) {
+        int pos = insertionPoint(price, ord);
+        if (pos < size && prices[pos] == price && ords[pos] == ord) {
+            System.arraycopy(prices, pos + 1, prices, pos, size - pos - 1);
+            System.arraycopy(ords, pos + 1, ords, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    // min, max tính cả hai đầu; null là không giới hạn
+    public BitSet range(BigDecimal minPrice, BigDecimal maxPrice) {
+        int from = minPrice == null ? 0 : lowerBound(toMinorUnits(minPrice, RoundingMode.CEILING));
+        long maxMinor = maxPrice == null ? Long.MAX_VALUE : toMinorUnits(maxPrice, RoundingMode.FLOOR);
+        // +1 để tính cả giá bằng max; max đã kẹp ở Long.MAX_VALUE thì lấy đến hết mảng, không cộng tràn
+        int to = maxMinor == Long.MAX_VALUE ? size : lowerBound(maxMinor + 1);
+        BitSet result = new BitSet();
+        for (int i = from; i < to; i++) {
+            result.set(ords[i]);
+        }
+        return result;
+    }
+
+    private int lowerBound(long price) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int insertionPoint(long price, int ord) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(prices[mid], ords[mid], price, ord) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long priceA, int ordA, long priceB, int ordB) {
+        int byPrice = Long.compare(priceA, priceB);
+        return byPrice != 0 ? byPrice : Integer.compare(ordA, ordB);
+    }
+
+    private void ensureCapacity() {
+        if (size == prices.length) {
+            prices = Arrays.copyOf(prices, size * 2);
+            ords = Arrays.copyOf(ords, size * 2);
+        }
+    }
+
+    private void quickSort(int low, int high) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long pivotPrice = prices[mid];
+            int pivotOrd = ords[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(prices[i], ords[i], pivotPrice, pivotOrd) < 0) {
+                    i++;
+                }
+                while (compare(prices[j], ords[j], pivotPrice, pivotOrd) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            // Đệ quy nửa nhỏ hơn để giới hạn độ sâu stack
+            if (j - low < high - i) {
+                quickSort(low, j);
+                low = i;
+            } else {
+                quickSort(i, high);
+                high = j;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long price = prices[a];
+        prices[a] = prices[b];
+        prices[b] = price;
+        int ord = ords[a];
+        ords[a] = ords[b];
+        ords[b] = ord;
+    }
+}
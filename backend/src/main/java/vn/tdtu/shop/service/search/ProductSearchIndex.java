@@ -0,0 +1,488 @@
+package vn.tdtu.shop.service.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.ProductFacetsDTO;
+
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Độ phổ biến chỉ khuếch đại điểm văn bản, không lấn át độ liên quan
+    private static final double SOLD_WEIGHT = 0.15;
+    private static final double VIEWS_WEIGHT = 0.05;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ProductRepository productRepository;
+    private final CatalogDictionary catalogDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<IndexedProduct> docs = new ArrayList<>();
+    private final BitSet liveDocs = new BitSet();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private volatile boolean ready;
+
+    // Bitmap theo id category / brand (CatalogDictionary), cùng không gian ordinal với liveDocs
+    private final Map<Integer, BitSet> categoryFacets = new HashMap<>();
+    private final Map<Integer, BitSet> brandFacets = new HashMap<>();
+    private BitSet[] priceBuckets;
+    private final PriceIndex priceIndex = new PriceIndex();
+
+    @Value("${product.facet.price-buckets:5000000,10000000,20000000,30000000}")
+    private BigDecimal[] priceBucketBounds;
+
+    @PostConstruct
+    public void initPriceBuckets() {
+        Arrays.sort(priceBucketBounds);
+        priceBuckets = new BitSet[priceBucketBounds.length + 1];
+        for (int i = 0; i < priceBuckets.length; i++) {
+            priceBuckets[i] = new BitSet();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = productRepository.findAllForSearchIndex();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            docs.clear();
+            liveDocs.clear();
+            freeOrdinals.clear();
+            categoryFacets.clear();
+            brandFacets.clear();
+            for (BitSet bucket : priceBuckets) {
+                bucket.clear();
+            }
+            priceIndex.clear();
+            for (Object[] row : rows) {
+                index(IndexedProduct.fromRow(row, catalogDictionary), true);
+            }
+            priceIndex.sort();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println(">>> SEARCH INDEX BUILT: " + rows.size() + " products, " + postings.size() + " terms");
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+                remove(event.getProductId());
+            } else {
+                index(IndexedProduct.fromDTO(event.getProduct(), catalogDictionary), false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Import hàng loạt: dựng lại cả index một lần (append + sort) thay vì chèn từng dòng vào PriceIndex
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // categoryId / brandId: null là không lọc, id không tồn tại cho kết quả rỗng
+    public SearchHits search(String query, Integer categoryId, Integer brandId,
+            BigDecimal minPrice, BigDecimal maxPrice, int offset, int limit, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            BitSet textMatches = (BitSet) liveDocs.clone();
+            float[] scores = null;
+
+            List<String> tokens = TextNormalizer.tokenize(query);
+            if (!tokens.isEmpty()) {
+                scores = new float[docs.size()];
+                int docCount = Math.max(1, liveDocs.cardinality());
+                for (int i = 0; i < tokens.size() && !textMatches.isEmpty(); i++) {
+                    // Token cuối được mở rộng theo tiền tố để hỗ trợ gõ dở: "del" -> "dell"
+                    boolean last = i == tokens.size() - 1;
+                    BitSet tokenDocs = new BitSet();
+                    for (Postings list : lookup(tokens.get(i), last)) {
+                        list.accumulate(tokenDocs, scores, idf(list.size, docCount));
+                    }
+                    textMatches.and(tokenDocs);
+                }
+            }
+
+            BitSet categoryFilter = facetFilter(categoryFacets, categoryId);
+            BitSet brandFilter = facetFilter(brandFacets, brandId);
+            BitSet priceFilter = priceFilter(minPrice, maxPrice);
+
+            BitSet matched = intersect(textMatches, categoryFilter, brandFilter, priceFilter);
+            ProductFacetsDTO facets = withFacets
+                    ? countFacets(textMatches, categoryFilter, brandFilter, priceFilter)
+                    : null;
+
+            return new SearchHits(topHits(matched, scores, offset, limit), matched.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Mỗi chiều facet được đếm với bộ lọc của các chiều còn lại, để sidebar hiển thị được các lựa chọn thay thế
+    private ProductFacetsDTO countFacets(BitSet textMatches, BitSet categoryFilter, BitSet brandFilter, BitSet priceFilter) {
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+
+        BitSet forCategories = intersect(textMatches, null, brandFilter, priceFilter);
+        countFacetValues(categoryFacets, forCategories, catalogDictionary::categoryName, facets.getCategories());
+
+        BitSet forBrands = intersect(textMatches, categoryFilter, null, priceFilter);
+        countFacetValues(brandFacets, forBrands, catalogDictionary::brandName, facets.getBrands());
+
+        BitSet forPrices = intersect(textMatches, categoryFilter, brandFilter, null);
+        for (int i = 0; i < priceBuckets.length; i++) {
+            BigDecimal from = i == 0 ? null : priceBucketBounds[i - 1];
+            BigDecimal to = i == priceBucketBounds.length ? null : priceBucketBounds[i];
+            facets.getPriceRanges().add(new ProductFacetsDTO.PriceRangeDTO(from, to,
+                    countIntersection(priceBuckets[i], forPrices)));
+        }
+        return facets;
+    }
+
+    // Đếm theo id, chỉ giải mã tên cho các giá trị có kết quả; sắp theo tên để thứ tự hiển thị ổn định
+    private static void countFacetValues(Map<Integer, BitSet> facetValues, BitSet filter,
+            Function<Integer, String> decoder, List<ProductFacetsDTO.FacetCountDTO> target) {
+        for (Map.Entry<Integer, BitSet> facet : facetValues.entrySet()) {
+            long count = countIntersection(facet.getValue(), filter);
+            if (count > 0) {
+                target.add(new ProductFacetsDTO.FacetCountDTO(decoder.apply(facet.getKey()), count));
+            }
+        }
+        target.sort(Comparator.comparing(ProductFacetsDTO.FacetCountDTO::getValue,
+                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+    }
+
+    private static BitSet facetFilter(Map<Integer, BitSet> facetValues, Integer id) {
+        if (id == null) {
+            return null;
+        }
+        BitSet docs = facetValues.get(id);
+        return docs == null ? new BitSet() : docs;
+    }
+
+    private BitSet priceFilter(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return priceIndex.range(minPrice, maxPrice);
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static long countIntersection(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private Collection<Postings> lookup(String token, boolean prefix) {
+        if (!prefix) {
+            Postings exact = postings.get(token);
+            return exact == null ? Collections.emptyList() : Collections.singletonList(exact);
+        }
+        Map<String, Postings> expanded = new LinkedHashMap<>();
+        for (Map.Entry<String, Postings> entry : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (expanded.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expanded.put(entry.getKey(), entry.getValue());
+        }
+        return expanded.values();
+    }
+
+    private List<Long> topHits(BitSet matched, float[] scores, int offset, int limit) {
+        int wanted = offset + limit;
+        if (wanted <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<ScoredDoc> worstFirst = Comparator.comparingDouble((ScoredDoc d) -> d.score)
+                .thenComparing((ScoredDoc d) -> d.productId, Comparator.reverseOrder());
+        PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(Math.min(wanted, 1024), worstFirst);
+
+        for (int ord = matched.nextSetBit(0); ord >= 0; ord = matched.nextSetBit(ord + 1)) {
+            IndexedProduct doc = docs.get(ord);
+            float textScore = scores == null ? 1.0f : scores[ord];
+            ScoredDoc candidate = new ScoredDoc(doc.id, (float) (textScore * doc.popularityBoost()));
+            if (heap.size() < wanted) {
+                heap.add(candidate);
+            } else if (worstFirst.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().productId);
+        }
+        Collections.reverse(ranked);
+        return offset >= ranked.size() ? Collections.emptyList() : ranked.subList(offset, ranked.size());
+    }
+
+    private static float idf(int docFrequency, int docCount) {
+        return (float) Math.log(1.0 + (double) docCount / docFrequency);
+    }
+
+    // bulk = true khi nạp lại toàn bộ, price index được sort một lần ở cuối
+    private void index(IndexedProduct product, boolean bulk) {
+        Integer existing = ordinals.get(product.id);
+        int ord;
+        if (existing != null) {
+            ord = existing;
+            unindex(ord);
+            docs.set(ord, product);
+        } else if (!freeOrdinals.isEmpty()) {
+            ord = freeOrdinals.pop();
+            docs.set(ord, product);
+        } else {
+            ord = docs.size();
+            docs.add(product);
+        }
+        ordinals.put(product.id, ord);
+        liveDocs.set(ord);
+
+        for (Map.Entry<String, Float> term : product.termWeights().entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new Postings()).add(ord, term.getValue());
+        }
+        addFacet(categoryFacets, product.categoryId, ord);
+        addFacet(brandFacets, product.brandId, ord);
+        if (product.price != null) {
+            priceBuckets[bucketOf(product.price)].set(ord);
+            if (bulk) {
+                priceIndex.append(product.priceMinor, ord);
+            } else {
+                priceIndex.add(product.priceMinor, ord);
+            }
+        }
+    }
+
+    private static void addFacet(Map<Integer, BitSet> facetValues, Integer id, int ord) {
+        if (id != null) {
+            facetValues.computeIfAbsent(id, key -> new BitSet()).set(ord);
+        }
+    }
+
+    private static void removeFacet(Map<Integer, BitSet> facetValues, Integer id, int ord) {
+        if (id == null) {
+            return;
+        }
+        BitSet docs = facetValues.get(id);
+        if (docs != null) {
+            docs.clear(ord);
+            if (docs.isEmpty()) {
+                facetValues.remove(id);
+            }
+        }
+    }
+
+    private int bucketOf(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < priceBucketBounds.length && price.compareTo(priceBucketBounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private void remove(Long productId) {
+        Integer ord = ordinals.remove(productId);
+        if (ord == null) {
+            return;
+        }
+        unindex(ord);
+        docs.set(ord, null);
+        liveDocs.clear(ord);
+        freeOrdinals.push(ord);
+    }
+
+    private void unindex(int ord) {
+        IndexedProduct product = docs.get(ord);
+        removeFacet(categoryFacets, product.categoryId, ord);
+        removeFacet(brandFacets, product.brandId, ord);
+        if (product.price != null) {
+            priceBuckets[bucketOf(product.price)].clear(ord);
+            priceIndex.remove(product.priceMinor, ord);
+        }
+        for (String term : product.termWeights().keySet()) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                list.remove(ord);
+                if (list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static final class ScoredDoc {
+        private final long productId;
+        private final float score;
+
+        private ScoredDoc(long productId, float score) {
+            this.productId = productId;
+            this.score = score;
+        }
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        private void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    size--;
+                    docs[i] = docs[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+
+        private void accumulate(BitSet target, float[] scores, float idf) {
+            for (int i = 0; i < size; i++) {
+                target.set(docs[i]);
+                scores[docs[i]] += weights[i] * idf;
+            }
+        }
+    }
+
+    private static final class IndexedProduct {
+        private final long id;
+        private final String name;
+        private final Integer brandId;
+        private final Integer categoryId;
+        // Tên đã giải mã, chỉ dùng để tách token cho full-text
+        private final String brand;
+        private final String category;
+        private final String shortDescription;
+        private final BigDecimal price;
+        private final long priceMinor;
+        private final long views;
+        private final long soldQuantity;
+        private Map<String, Float> termWeights;
+
+        private IndexedProduct(long id, String name, Integer brandId, String brand, Integer categoryId, String category,
+                String shortDescription, BigDecimal price, Long views, Long soldQuantity) {
+            this.id = id;
+            this.name = name;
+            this.brandId = brandId;
+            this.categoryId = categoryId;
+            this.brand = brand;
+            this.category = category;
+            this.shortDescription = shortDescription;
+            this.price = price;
+            this.priceMinor = price != null ? PriceIndex.toMinorUnits(price, RoundingMode.HALF_UP) : 0L;
+            this.views = views != null ? views : 0L;
+            this.soldQuantity = soldQuantity != null ? soldQuantity : 0L;
+        }
+
+        // Thứ tự cột khớp với ProductRepository.findAllForSearchIndex
+        private static IndexedProduct fromRow(Object[] row, CatalogDictionary dictionary) {
+            Integer brandId = (Integer) row[2];
+            Integer categoryId = (Integer) row[3];
+            return new IndexedProduct((Long) row[0], (String) row[1],
+                    brandId, dictionary.brandName(brandId), categoryId, dictionary.categoryName(categoryId),
+                    (String) row[4], (BigDecimal) row[5], (Long) row[6], (Long) row[7]);
+        }
+
+        // Tên trong DTO vừa được mã hóa khi lưu sản phẩm nên luôn có sẵn trong từ điển
+        private static IndexedProduct fromDTO(ProductDTO dto, CatalogDictionary dictionary) {
+            return new IndexedProduct(dto.getId(), dto.getName(),
+                    dictionary.brandFilter(dto.getBrand()), dto.getBrand(),
+                    dictionary.categoryFilter(dto.getCategory()), dto.getCategory(),
+                    dto.getShortDescription(), dto.getPrice(), dto.getViews(), dto.getSoldQuantity());
+        }
+
+        private Map<String, Float> termWeights() {
+            if (termWeights == null) {
+                Map<String, Float> weights = new HashMap<>();
+                addField(weights, name, NAME_WEIGHT);
+                addField(weights, brand, BRAND_WEIGHT);
+                addField(weights, category, CATEGORY_WEIGHT);
+                addField(weights, shortDescription, DESCRIPTION_WEIGHT);
+                termWeights = weights;
+            }
+            return termWeights;
+        }
+
+        private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+            for (String token : TextNormalizer.tokenize(text)) {
+                weights.merge(token, fieldWeight, Float::sum);
+            }
+        }
+
+        private double popularityBoost() {
+            return 1.0 + SOLD_WEIGHT * Math.log1p(soldQuantity) + VIEWS_WEIGHT * Math.log1p(views);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package vn.tdtu.shop.service.search;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import org.springframework.data.domain.Pageable;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+// Khóa cache trang tìm kiếm: các request khác nhau về hình thức nhưng cùng kết quả phải ra cùng một khóa.
+// category / brand đã mã hóa qua CatalogDictionary (không phân biệt hoa thường), tên bỏ khoảng trắng hai đầu và
+// chuyển chữ thường (truy vấn đã so sánh LOWER), giá bỏ số 0 thừa vì BigDecimal.equals phân biệt scale.
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ProductSearchKey {
+
+    private final Integer categoryId;
+    private final Integer brandId;
+    private final String name;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final Pageable pageable;
+
+    private ProductSearchKey(Integer categoryId, Integer brandId, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Pageable pageable) {
+        this.categoryId = categoryId;
+        this.brandId = brandId;
+        this.name = name;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.pageable = pageable;
+    }
+
+    public static ProductSearchKey of(Integer categoryId, Integer brandId, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Pageable pageable) {
+        String normalizedName = name == null || name.isBlank() ? null : name.trim().toLowerCase(Locale.ROOT);
+        return new ProductSearchKey(categoryId, brandId, normalizedName, normalizePrice(minPrice),
+                normalizePrice(maxPrice), pageable);
+    }
+
+    // Sản phẩm thuộc (categoryId, brandId) có thể làm đổi kết quả của khóa này; null ở khóa nghĩa là không lọc chiều đó
+    public boolean covers(Integer productCategoryId, Integer productBrandId) {
+        return (categoryId == null || categoryId.equals(productCategoryId))
+                && (brandId == null || brandId.equals(productBrandId));
+    }
+
+    private static BigDecimal normalizePrice(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,212 @@
+package vn.tdtu.shop.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.SuggestionDTO;
+
+// Gợi ý khi gõ ô tìm kiếm: tên sản phẩm và thương hiệu đã bỏ dấu, xếp theo soldQuantity.
+// Thương hiệu được xếp theo tổng soldQuantity của các sản phẩm thuộc thương hiệu đó.
+@Component
+public class ProductSuggester {
+
+    private static final String TYPE_PRODUCT = "product";
+    private static final String TYPE_BRAND = "brand";
+
+    // Ngoài tên đầy đủ, mỗi từ trong tên cũng là điểm bắt đầu gợi ý ("iph" -> "Apple iPhone 15"),
+    // giới hạn số từ để tên dài không làm trie phình ra
+    private static final int MAX_WORD_STARTS = 4;
+
+    private final ProductRepository productRepository;
+    private final CatalogDictionary catalogDictionary;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixTrie trie;
+    private final int maxResults;
+
+    private final Map<Long, IndexedName> products = new HashMap<>();
+    private final Map<String, BrandEntry> brands = new HashMap<>();
+
+    public ProductSuggester(ProductRepository productRepository, CatalogDictionary catalogDictionary,
+            @Value("${product.suggest.max-results:10}") int maxResults) {
+        this.productRepository = productRepository;
+        this.catalogDictionary = catalogDictionary;
+        this.maxResults = maxResults;
+        this.trie = new PrefixTrie(maxResults);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = productRepository.findAllForSearchIndex();
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            products.clear();
+            brands.clear();
+            // Dòng: id, name, brandId, categoryId, shortDescription, price, views, soldQuantity
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1], catalogDictionary.brandName((Integer) row[2]), (Long) row[7], true);
+            }
+            trie.rebuildTops();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println(">>> SUGGEST INDEX BUILT: " + products.size() + " products, " + brands.size() + " brands");
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getProductId());
+            if (event.getType() != ProductChangedEvent.ChangeType.DELETED) {
+                ProductDTO product = event.getProduct();
+                add(product.getId(), product.getName(), product.getBrand(), product.getSoldQuantity(), false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuild();
+    }
+
+    // Đơn hàng chỉ đổi soldQuantity nên cập nhật điểm tại chỗ, không cần xóa rồi thêm lại key
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getQuantities().forEach((productId, quantity) -> {
+                IndexedName indexed = products.get(productId);
+                if (indexed == null) {
+                    return;
+                }
+                indexed.entry.addScore(quantity);
+                indexed.keys.forEach(trie::refresh);
+                BrandEntry brand = brands.get(indexed.brandKey);
+                if (brand != null) {
+                    brand.entry.addScore(quantity);
+                    trie.refresh(indexed.brandKey);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.max(0, Math.min(limit, maxResults));
+        lock.readLock().lock();
+        try {
+            List<SuggestionDTO> result = new ArrayList<>(size);
+            for (PrefixTrie.Entry entry : trie.complete(prefix, size)) {
+                result.add(new SuggestionDTO(entry.getLabel(), entry.getType(), entry.getProductId()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, String name, String brand, Long soldQuantity, boolean bulk) {
+        long sold = soldQuantity != null ? soldQuantity : 0L;
+        PrefixTrie.Entry entry = new PrefixTrie.Entry(name, TYPE_PRODUCT, id, sold);
+
+        List<String> tokens = TextNormalizer.tokenize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size() && i < MAX_WORD_STARTS; i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        for (String key : keys) {
+            trie.insert(key, entry, bulk);
+        }
+
+        String brandKey = normalize(brand);
+        if (!brandKey.isEmpty()) {
+            BrandEntry brandEntry = brands.get(brandKey);
+            if (brandEntry == null) {
+                brandEntry = new BrandEntry(new PrefixTrie.Entry(brand, TYPE_BRAND, null, 0));
+                brands.put(brandKey, brandEntry);
+                trie.insert(brandKey, brandEntry.entry, bulk);
+            }
+            brandEntry.productCount++;
+            brandEntry.entry.addScore(sold);
+            if (!bulk) {
+                trie.refresh(brandKey);
+            }
+        }
+        products.put(id, new IndexedName(entry, new ArrayList<>(keys), brandKey));
+    }
+
+    private void remove(Long id) {
+        IndexedName indexed = products.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        for (String key : indexed.keys) {
+            trie.remove(key, indexed.entry);
+        }
+        BrandEntry brand = brands.get(indexed.brandKey);
+        if (brand == null) {
+            return;
+        }
+        brand.productCount--;
+        brand.entry.addScore(-indexed.entry.getScore());
+        if (brand.productCount == 0) {
+            brands.remove(indexed.brandKey);
+            trie.remove(indexed.brandKey, brand.entry);
+        } else {
+            trie.refresh(indexed.brandKey);
+        }
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", TextNormalizer.tokenize(text));
+    }
+
+    private static final class IndexedName {
+        private final PrefixTrie.Entry entry;
+        private final List<String> keys;
+        private final String brandKey;
+
+        private IndexedName(PrefixTrie.Entry entry, List<String> keys, String brandKey) {
+            this.entry = entry;
+            this.keys = keys;
+            this.brandKey = brandKey;
+        }
+    }
+
+    private static final class BrandEntry {
+        private final PrefixTrie.Entry entry;
+        private int productCount;
+
+        private BrandEntry(PrefixTrie.Entry entry) {
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package vn.tdtu.shop.service.search;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import vn.tdtu.shop.util.response.ProductFacetsDTO;
+
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+    // id sản phẩm của trang hiện tại, đã sắp xếp theo độ liên quan
+    private final List<Long> productIds;
+    private final long totalHits;
+
+    // null nếu không yêu cầu facet
+    private final ProductFacetsDTO facets;
+}
@@ -0,0 +1,227 @@
+package vn.tdtu.shop.service.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Ảnh chụp catalog dạng nhị phân, đọc trực tiếp từ vùng nhớ map của file (ngoài heap).
+//
+// Bố cục (big-endian):
+//   header : magic int | version long | count int | indexOffset long
+//   records: id long | price unscaled long | price scale byte | brandId int | categoryId int | name | image
+//            (chuỗi = độ dài short, -1 là null, theo sau là byte UTF-8)
+//   index  : count cặp (id long, offset int) sắp tăng theo id, tìm bằng binary search
+//
+// Tra id và đọc các trường số không cấp phát gì trên heap; chỉ chuỗi tên / ảnh được tạo khi cần trả ra ngoài.
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x43415432; // "CAT2"
+    private static final int HEADER_SIZE = 4 + 8 + 4 + 8;
+    private static final int INDEX_ENTRY_SIZE = 8 + 4;
+    private static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    // Bộ đệm giải mã chuỗi dùng lại theo thread, tránh cấp phát byte[] mỗi lần đọc
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    private final MappedByteBuffer buffer;
+    private final long version;
+    private final int count;
+    private final int indexOffset;
+
+    private CatalogSnapshot(MappedByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("File snapshot catalog không hợp lệ");
+        }
+        this.buffer = buffer;
+        this.version = buffer.getLong(4);
+        this.count = buffer.getInt(12);
+        this.indexOffset = (int) buffer.getLong(16);
+    }
+
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Vùng map vẫn hợp lệ sau khi đóng channel và cả khi file bị thay bằng rename
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    // Offset của bản ghi, -1 nếu id không có trong snapshot
+    public int find(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = indexOffset + mid * INDEX_ENTRY_SIZE;
+            long midId = buffer.getLong(entry);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(entry + 8);
+            }
+        }
+        return -1;
+    }
+
+    public long id(int offset) {
+        return buffer.getLong(offset);
+    }
+
+    public long priceUnscaled(int offset) {
+        return buffer.getLong(offset + 8);
+    }
+
+    public int priceScale(int offset) {
+        return buffer.get(offset + 16);
+    }
+
+    public BigDecimal price(int offset) {
+        return BigDecimal.valueOf(priceUnscaled(offset), priceScale(offset));
+    }
+
+    public int brandId(int offset) {
+        return buffer.getInt(offset + 17);
+    }
+
+    public int categoryId(int offset) {
+        return buffer.getInt(offset + 21);
+    }
+
+    public String name(int offset) {
+        return readString(offset + 25);
+    }
+
+    public String image(int offset) {
+        int nameAt = offset + 25;
+        return readString(nameAt + 2 + Math.max(0, buffer.getShort(nameAt)));
+    }
+
+    private String readString(int at) {
+        int length = buffer.getShort(at);
+        if (length < 0) {
+            return null;
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        buffer.get(at + 2, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Ghi snapshot mới; bản ghi phải được thêm theo id tăng dần (truy vấn nguồn ORDER BY id)
+    public static final class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final long version;
+        private long[] ids = new long[1024];
+        private int[] offsets = new int[1024];
+        private int count;
+        private long position = HEADER_SIZE;
+        private long lastId = Long.MIN_VALUE;
+
+        public Writer(Path file, long version) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.channel.position(HEADER_SIZE);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            this.version = version;
+        }
+
+        public void add(long id, String name, BigDecimal price, int brandId, int categoryId, String image)
+                throws IOException {
+            if (id <= lastId) {
+                throw new IllegalArgumentException("Id phải tăng dần: " + id + " sau " + lastId);
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            ids[count] = id;
+            offsets[count] = checkedOffset(position);
+            count++;
+            lastId = id;
+
+            out.writeLong(id);
+            out.writeLong(price.unscaledValue().longValueExact());
+            out.writeByte(price.scale());
+            out.writeInt(brandId);
+            out.writeInt(categoryId);
+            position += 8 + 8 + 1 + 4 + 4;
+            position += writeString(name);
+            position += writeString(image);
+        }
+
+        // Ghi index ở cuối, sau cùng mới ghi header để file dở dang không bao giờ có magic hợp lệ
+        public void finish() throws IOException {
+            long indexPosition = position;
+            for (int i = 0; i < count; i++) {
+                out.writeLong(ids[i]);
+                out.writeInt(offsets[i]);
+            }
+            position += (long) count * INDEX_ENTRY_SIZE;
+            checkedOffset(position);
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putLong(version).putInt(count).putLong(indexPosition).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private int writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeShort(-1);
+                return 2;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, MAX_STRING_BYTES);
+            out.writeShort(length);
+            out.write(bytes, 0, length);
+            return 2 + length;
+        }
+
+        // MappedByteBuffer đánh chỉ số bằng int nên một snapshot tối đa 2GB
+        private static int checkedOffset(long offset) {
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot catalog vượt quá 2GB");
+            }
+            return (int) offset;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package vn.tdtu.shop.service.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.event.ProductsImportedEvent;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
+
+// Giữ ProductSummaryDTO của toàn bộ catalog trong file map vào bộ nhớ thay vì trên heap.
+// Sản phẩm thay đổi sau lần build gần nhất bị đánh dấu "dirty" và đọc từ DB cho đến khi snapshot mới
+// (build nền, debounce theo rebuild-delay-ms) được đổi vào. Mỗi lần build ghi ra một file riêng theo version
+// (catalog.<version>.snapshot) thay vì rename đè: trên Windows không thay được file đang map, và Java không unmap chủ động.
+@Service
+public class CatalogSnapshotStore {
+
+    private static final String SNAPSHOT_SQL = "SELECT id, name, price, brand_id, category_id, primary_image_url FROM products "
+            + "WHERE deleted_at IS NULL ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogDictionary catalogDictionary;
+    private final boolean enabled;
+    private final Path file;
+    private final String fileBase;
+    private final String fileExtension;
+
+    private volatile CatalogSnapshot current;
+    // id -> số thứ tự thay đổi; snapshot build sau thay đổi đó mới được coi là có dữ liệu mới
+    private final Map<Long, Long> dirty = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    public CatalogSnapshotStore(JdbcTemplate jdbcTemplate, CatalogDictionary catalogDictionary,
+            @Value("${product.snapshot.enabled:true}") boolean enabled,
+            @Value("${product.snapshot.file:./data/catalog.snapshot}") String file) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogDictionary = catalogDictionary;
+        this.enabled = enabled;
+        this.file = Paths.get(file).toAbsolutePath();
+        String name = this.file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.fileBase = dot > 0 ? name.substring(0, dot) : name;
+        this.fileExtension = dot > 0 ? name.substring(dot) : "";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Đánh dấu dirty trước khi các cache khác bị xóa, để lần nạp lại không đọc bản ghi cũ trong snapshot
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            dirty.put(event.getProductId(), changeSequence.incrementAndGet());
+            rebuildRequested.set(true);
+        }
+    }
+
+    // Id mới chưa có trong snapshot nên tự đọc từ DB, không cần đánh dấu dirty; chỉ hẹn build lại
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        if (enabled) {
+            rebuildRequested.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.snapshot.rebuild-delay-ms:5000}")
+    public void rebuildIfChanged() {
+        if (rebuildRequested.compareAndSet(true, false)) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    // Trả về các summary đọc được từ snapshot; id không có hoặc đang dirty thì caller tự đọc từ DB
+    public Map<Long, ProductSummaryDTO> getSummaries(Collection<Long> ids) {
+        CatalogSnapshot snapshot = current;
+        Map<Long, ProductSummaryDTO> found = new HashMap<>();
+        if (snapshot == null) {
+            return found;
+        }
+        boolean checkDirty = !dirty.isEmpty();
+        for (Long id : ids) {
+            if (checkDirty && dirty.containsKey(id)) {
+                continue;
+            }
+            int offset = snapshot.find(id);
+            if (offset >= 0) {
+                found.put(id, new ProductSummaryDTO(id, snapshot.name(offset), snapshot.price(offset),
+                        catalogDictionary.brandName(snapshot.brandId(offset)),
+                        catalogDictionary.categoryName(snapshot.categoryId(offset)), snapshot.image(offset)));
+            }
+        }
+        return found;
+    }
+
+    // Build vào file tạm rồi rename sang tên theo version (chưa tồn tại); reader đang giữ snapshot cũ vẫn đọc vùng map cũ
+    public synchronized void rebuild() {
+        long buildSequence = changeSequence.get();
+        long started = System.currentTimeMillis();
+        Path target = versionedFile(started);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            int count;
+            try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(temp, started)) {
+                writeProducts(writer);
+                writer.finish();
+                count = writer.getCount();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            current = CatalogSnapshot.open(target);
+            dirty.entrySet().removeIf(entry -> entry.getValue() <= buildSequence);
+            deleteOldFiles(target);
+            System.out.println(">>> CATALOG SNAPSHOT BUILT: " + count + " products, "
+                    + current.sizeInBytes() / 1024 + " KB in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (IOException | RuntimeException e) {
+            // Giữ snapshot cũ, các id dirty vẫn đọc từ DB; thử lại ở lần thay đổi tiếp theo
+            System.out.println(">>> CATALOG SNAPSHOT BUILD FAILED: " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // file tạm sẽ bị ghi đè ở lần build sau
+            }
+        }
+    }
+
+    // "catalog.snapshot" -> "catalog.<version>.snapshot" cùng thư mục
+    private Path versionedFile(long version) {
+        return file.resolveSibling(fileBase + "." + version + fileExtension);
+    }
+
+    // Xóa các bản cũ, file tạm của lần build lỗi và file không version của bản trước.
+    // File còn đang map (Windows) xóa không được thì bỏ qua, lần build sau / lần khởi động sau xóa tiếp
+    private void deleteOldFiles(Path keep) {
+        Pattern versioned = Pattern.compile(Pattern.quote(fileBase) + "\\.\\d+" + Pattern.quote(fileExtension)
+                + "(\\.tmp)?");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent(), path -> path.equals(file)
+                || versioned.matcher(path.getFileName().toString()).matches())) {
+            for (Path old : files) {
+                if (!old.equals(keep)) {
+                    try {
+                        Files.deleteIfExists(old);
+                    } catch (IOException e) {
+                        System.out.println(">>> CATALOG SNAPSHOT OLD FILE NOT DELETED: " + old.getFileName());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(">>> CATALOG SNAPSHOT CLEANUP FAILED: " + e.getMessage());
+        }
+    }
+
+    private void writeProducts(CatalogSnapshot.Writer writer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(SNAPSHOT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Streaming từng dòng như ProductExportService
+                ps.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        writer.add(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getInt(4), rs.getInt(5),
+                                rs.getString(6));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+}
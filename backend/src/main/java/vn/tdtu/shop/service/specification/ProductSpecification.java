@@ -0,0 +1,45 @@
+package vn.tdtu.shop.service.specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Predicate;
+import vn.tdtu.shop.domain.Product;
+
+public class ProductSpecification {
+
+    // Cùng điều kiện với ProductRepository.findByMultipleCriteria, nhưng chỉ thêm predicate khi có giá trị
+    // categoryId / brandId đã được CatalogDictionary mã hóa từ tên, so sánh trên cột int có index
+    public static Specification<Product> filterProducts(Integer categoryId, Integer brandId, String name,
+            BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isNull(root.get("deletedAt")));
+
+            if (categoryId != null) {
+                predicates.add(cb.equal(root.get("categoryId"), categoryId));
+            }
+
+            if (brandId != null) {
+                predicates.add(cb.equal(root.get("brandId"), brandId));
+            }
+
+            if (name != null && !name.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+            }
+
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
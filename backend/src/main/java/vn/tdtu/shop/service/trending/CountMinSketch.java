@@ -0,0 +1,64 @@
+package vn.tdtu.shop.service.trending;
+
+import java.util.Arrays;
+
+// Count-min sketch cho key kiểu long: ước lượng luôn >= giá trị thật, sai số tỉ lệ nghịch với width.
+// Dùng conservative update (chỉ tăng các ô đang nhỏ nhất) để giảm sai số với key ít xuất hiện.
+// Không thread-safe, TrendingProductTracker giữ lock khi gọi.
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counts;
+
+    // width được làm tròn lên lũy thừa của 2
+    public CountMinSketch(int depth, int width) {
+        int roundedWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.counts = new int[depth * roundedWidth];
+    }
+
+    public void add(long key, int amount) {
+        long hash = mix(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[cell(hash, row)]);
+        }
+        int target = (int) Math.min(Integer.MAX_VALUE, (long) estimate + amount);
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(hash, row);
+            if (counts[cell] < target) {
+                counts[cell] = target;
+            }
+        }
+    }
+
+    public int estimate(long key) {
+        long hash = mix(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[cell(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    // Double hashing: hàng i dùng h1 + i * h2, chỉ cần một lần trộn bit cho mọi hàng
+    private int cell(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    // splitmix64: id sản phẩm liên tiếp nhau vẫn rải đều trên các cột
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
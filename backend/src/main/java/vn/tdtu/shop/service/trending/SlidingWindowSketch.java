@@ -0,0 +1,67 @@
+package vn.tdtu.shop.service.trending;
+
+// Vòng gồm nhiều cửa sổ thời gian, mỗi cửa sổ một CountMinSketch.
+// Điểm = tổng số đếm của từng cửa sổ nhân decay^tuổi, cửa sổ hiện tại có tuổi 0;
+// cửa sổ cũ nhất bị xóa khi vòng quay nên sự kiện quá windows * windowMillis không còn tính.
+// Không thread-safe.
+public class SlidingWindowSketch {
+
+    private final CountMinSketch[] windows;
+    private final long windowMillis;
+    private final double[] weights;
+    private long currentWindow = Long.MIN_VALUE;
+
+    public SlidingWindowSketch(int windowCount, long windowMillis, double decay, int depth, int width) {
+        this.windows = new CountMinSketch[windowCount];
+        for (int i = 0; i < windowCount; i++) {
+            windows[i] = new CountMinSketch(depth, width);
+        }
+        this.windowMillis = windowMillis;
+        this.weights = new double[windowCount];
+        for (int age = 0; age < windowCount; age++) {
+            weights[age] = Math.pow(decay, age);
+        }
+    }
+
+    // Trả về true nếu đã sang cửa sổ mới (điểm của mọi key đều thay đổi)
+    public boolean advance(long nowMillis) {
+        long window = nowMillis / windowMillis;
+        if (currentWindow == Long.MIN_VALUE) {
+            currentWindow = window;
+            return false;
+        }
+        if (window <= currentWindow) {
+            return false;
+        }
+        long steps = Math.min(window - currentWindow, windows.length);
+        for (long i = 1; i <= steps; i++) {
+            windows[slot(currentWindow + i)].clear();
+        }
+        currentWindow = window;
+        return true;
+    }
+
+    public long currentWindow() {
+        return currentWindow;
+    }
+
+    public int windowCount() {
+        return windows.length;
+    }
+
+    public void add(long key, int amount) {
+        windows[slot(currentWindow)].add(key, amount);
+    }
+
+    public double score(long key) {
+        double score = 0;
+        for (int age = 0; age < windows.length; age++) {
+            score += weights[age] * windows[slot(currentWindow - age)].estimate(key);
+        }
+        return score;
+    }
+
+    private int slot(long window) {
+        return (int) Math.floorMod(window, (long) windows.length);
+    }
+}
@@ -0,0 +1,129 @@
+package vn.tdtu.shop.service.trending;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Min-heap có chỉ mục, giữ tối đa capacity id có điểm cao nhất.
+// Phần tử nhỏ nhất ở gốc nên kiểm tra "có vào top không" là O(1), cập nhật điểm là O(log K).
+// Không thread-safe.
+public class TopKHeap {
+
+    private final int capacity;
+    private final long[] ids;
+    private final double[] scores;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int size;
+
+    public TopKHeap(int capacity) {
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.scores = new double[capacity];
+    }
+
+    public void offer(long id, double score) {
+        Integer pos = positions.get(id);
+        if (pos != null) {
+            double previous = scores[pos];
+            scores[pos] = score;
+            if (score < previous) {
+                siftUp(pos);
+            } else {
+                siftDown(pos);
+            }
+            return;
+        }
+        if (size < capacity) {
+            place(size, id, score);
+            siftUp(size++);
+            return;
+        }
+        if (score <= scores[0]) {
+            return;
+        }
+        positions.remove(ids[0]);
+        place(0, id, score);
+        siftDown(0);
+    }
+
+    public void remove(long id) {
+        Integer pos = positions.remove(id);
+        if (pos == null) {
+            return;
+        }
+        size--;
+        if (pos == size) {
+            return;
+        }
+        double removed = scores[pos];
+        place(pos, ids[size], scores[size]);
+        if (scores[pos] < removed) {
+            siftUp(pos);
+        } else {
+            siftDown(pos);
+        }
+    }
+
+    public void clear() {
+        positions.clear();
+        size = 0;
+    }
+
+    // Điểm giảm dần, bằng điểm thì id nhỏ trước để kết quả ổn định giữa các lần gọi
+    public List<Long> top(int limit) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Long.compare(ids[a], ids[b]);
+        });
+        List<Long> result = new ArrayList<>(Math.min(limit, size));
+        for (int i = 0; i < order.length && i < limit; i++) {
+            result.add(ids[order[i]]);
+        }
+        return result;
+    }
+
+    private void place(int pos, long id, double score) {
+        ids[pos] = id;
+        scores[pos] = score;
+        positions.put(id, pos);
+    }
+
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (scores[parent] <= scores[pos]) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    private void siftDown(int pos) {
+        while (true) {
+            int left = 2 * pos + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[pos] <= scores[smallest]) {
+                break;
+            }
+            swap(pos, smallest);
+            pos = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        double score = scores[a];
+        place(a, ids[b], scores[b]);
+        place(b, id, score);
+    }
+}
@@ -0,0 +1,176 @@
+package vn.tdtu.shop.service.trending;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.tdtu.shop.repository.ProductRepository;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.response.ProductSummaryDTO;
+
+// Top-K sản phẩm đang hot theo lượt xem và đơn hàng gần đây, tính hoàn toàn trong bộ nhớ.
+// Request chỉ cộng vào bộ đệm không khóa và đọc snapshot dựng sẵn; refresh() định kỳ mới đổ bộ đệm vào sketch / heap,
+// chuyển cửa sổ và dựng lại snapshot. Điểm được ghi xuống cột popularity.
+@Service
+public class TrendingProductTracker {
+
+    private static final String PERSIST_SQL = "UPDATE products SET popularity = ? WHERE id = ?";
+    private static final int SKETCH_DEPTH = 4;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int orderWeight;
+
+    // id -> lượt xem / trọng số đơn hàng chưa đổ vào sketch. LongAdder như ProductViewCounter: request không lấy lock.
+    // Không xóa entry (sumThenReset khi đổ) để không mất lượt cộng vào một adder vừa bị gỡ khỏi map
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Các field dưới đây chỉ được truy cập khi giữ lock của this
+    private final SlidingWindowSketch sketch;
+    private final TopKHeap heap;
+    // id có sự kiện trong vòng cửa sổ -> cửa sổ gần nhất có sự kiện; dùng để tính lại heap khi sang cửa sổ mới
+    // và để ghi popularity (kể cả về 0 khi sản phẩm hết hot)
+    private final Map<Long, Long> active = new HashMap<>();
+
+    private volatile List<ProductSummaryDTO> snapshot = List.of();
+
+    public TrendingProductTracker(
+            ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${product.trending.windows:12}") int windowCount,
+            @Value("${product.trending.window-seconds:300}") long windowSeconds,
+            @Value("${product.trending.decay:0.8}") double decay,
+            @Value("${product.trending.sketch-width:2048}") int sketchWidth,
+            @Value("${product.trending.capacity:100}") int capacity,
+            @Value("${product.trending.order-weight:5}") int orderWeight) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderWeight = orderWeight;
+        this.sketch = new SlidingWindowSketch(windowCount, windowSeconds * 1000, decay, SKETCH_DEPTH, sketchWidth);
+        this.heap = new TopKHeap(capacity);
+    }
+
+    public void recordView(Long productId) {
+        record(productId, 1);
+    }
+
+    // Chỉ tính đơn đã commit
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        event.getQuantities().forEach((productId, quantity) -> record(productId, quantity * orderWeight));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            pending.remove(event.getProductId());
+            heap.remove(event.getProductId());
+            active.remove(event.getProductId());
+        }
+    }
+
+    public List<ProductSummaryDTO> getTrending(int limit) {
+        List<ProductSummaryDTO> current = snapshot;
+        return current.subList(0, Math.max(0, Math.min(limit, current.size())));
+    }
+
+    @Scheduled(fixedDelayString = "${product.trending.refresh-ms:5000}")
+    public void refresh() {
+        List<Long> ids;
+        synchronized (this) {
+            advance();
+            drainPending();
+            ids = heap.top(Integer.MAX_VALUE);
+        }
+        if (ids.isEmpty()) {
+            snapshot = List.of();
+            return;
+        }
+        // Đọc lại summary mỗi lần làm mới nên tên/giá/ảnh không cần nghe ProductChangedEvent
+        Map<Long, ProductSummaryDTO> byId = productRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, Function.identity()));
+        List<ProductSummaryDTO> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            ProductSummaryDTO summary = byId.get(id);
+            if (summary != null) {
+                ordered.add(summary);
+            }
+        }
+        snapshot = List.copyOf(ordered);
+    }
+
+    @Scheduled(fixedDelayString = "${product.trending.persist-interval-ms:300000}")
+    public void persistScores() {
+        List<Object[]> batchArgs = new ArrayList<>();
+        // Cửa sổ chỉ chuyển trong refresh(); chậm tối đa refresh-ms so với đồng hồ là đủ cho việc ghi điểm
+        synchronized (this) {
+            long oldestLiveWindow = sketch.currentWindow() - sketch.windowCount() + 1;
+            Iterator<Map.Entry<Long, Long>> it = active.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Long> entry = it.next();
+                if (entry.getValue() < oldestLiveWindow) {
+                    // Ghi 0 một lần rồi bỏ theo dõi
+                    batchArgs.add(new Object[] { 0.0, entry.getKey() });
+                    it.remove();
+                } else {
+                    batchArgs.add(new Object[] { sketch.score(entry.getKey()), entry.getKey() });
+                }
+            }
+        }
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+        batchArgs.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(PERSIST_SQL, batchArgs));
+    }
+
+    private void record(Long productId, int amount) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).add(amount);
+    }
+
+    // Gọi khi giữ lock, sau advance() để sự kiện trong bộ đệm được tính vào cửa sổ hiện tại
+    private void drainPending() {
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long amount = entry.getValue().sumThenReset();
+            if (amount == 0) {
+                continue;
+            }
+            Long productId = entry.getKey();
+            sketch.add(productId, (int) Math.min(amount, Integer.MAX_VALUE));
+            active.put(productId, sketch.currentWindow());
+            heap.offer(productId, sketch.score(productId));
+        }
+    }
+
+    // Sang cửa sổ mới thì điểm của mọi sản phẩm đều giảm, dựng lại heap từ các id còn trong vòng cửa sổ
+    private void advance() {
+        if (!sketch.advance(System.currentTimeMillis())) {
+            return;
+        }
+        heap.clear();
+        long oldestLiveWindow = sketch.currentWindow() - sketch.windowCount() + 1;
+        for (Map.Entry<Long, Long> entry : active.entrySet()) {
+            if (entry.getValue() >= oldestLiveWindow) {
+                heap.offer(entry.getKey(), sketch.score(entry.getKey()));
+            }
+        }
+    }
+}
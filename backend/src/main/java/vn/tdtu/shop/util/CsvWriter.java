@@ -0,0 +1,56 @@
+package vn.tdtu.shop.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+// Ghi CSV theo RFC 4180, đọc lại được bằng CsvReader
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    // null được ghi thành field rỗng
+    public void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        // Giữ nguyên khoảng trắng đầu/cuối khi đọc lại
+        return Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1));
+    }
+}
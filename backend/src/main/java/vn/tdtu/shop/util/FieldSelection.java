@@ -0,0 +1,125 @@
+package vn.tdtu.shop.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import vn.tdtu.shop.util.error.InputInvalidException;
+
+// Tham số fields= (sparse fieldset): "id,name,price" hoặc "id,status,items.productName,items.quantity".
+// Một mức lồng qua dấu chấm, đủ cho items của đơn hàng / giỏ hàng. Bỏ trống = trả đủ field như trước.
+// Service dùng includes(...) để bỏ cột / collection không cần khi truy vấn; FieldSelectionFilter lọc lúc serialize.
+public final class FieldSelection {
+
+    // Id của @JsonFilter trên các DTO hỗ trợ fields=
+    public static final String FILTER_ID = "fieldSelection";
+
+    private static final String REQUEST_ATTRIBUTE = FieldSelection.class.getName();
+    private static final FieldSelection ALL = new FieldSelection(null, Map.of());
+
+    private final Class<?> rootType;
+    // "" -> field ở gốc, "items" -> field của phần tử trong items; không có key = không giới hạn ở mức đó
+    private final Map<String, Set<String>> fields;
+
+    private FieldSelection(Class<?> rootType, Map<String, Set<String>> fields) {
+        this.rootType = rootType;
+        this.fields = fields;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    public static FieldSelection parse(String value, Class<?> rootType) throws InputInvalidException {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        Map<String, Set<String>> fields = new HashMap<>();
+        for (String path : value.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int dot = trimmed.indexOf('.');
+            String root = dot < 0 ? trimmed : trimmed.substring(0, dot);
+            Field rootField = findField(rootType, root);
+            fields.computeIfAbsent("", key -> new LinkedHashSet<>()).add(root);
+            if (dot >= 0) {
+                String nested = trimmed.substring(dot + 1);
+                findField(elementType(rootField), nested);
+                fields.computeIfAbsent(root, key -> new LinkedHashSet<>()).add(nested);
+            }
+        }
+        return fields.isEmpty() ? ALL : new FieldSelection(rootType, fields);
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    public boolean includes(String field) {
+        return includes("", field);
+    }
+
+    public boolean includes(String prefix, String field) {
+        Set<String> allowed = fields.get(prefix);
+        return allowed == null || allowed.contains(field);
+    }
+
+    // Có yêu cầu ít nhất một trong các field, dùng để quyết định có cần nạp một quan hệ hay không
+    public boolean includesAny(String prefix, String... candidates) {
+        return Arrays.stream(candidates).anyMatch(field -> includes(prefix, field));
+    }
+
+    public Class<?> getRootType() {
+        return rootType;
+    }
+
+    // Gắn vào request hiện tại để FieldSelectionFilter đọc khi controller trả về DTO
+    public FieldSelection bind() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && !isAll()) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, this, RequestAttributes.SCOPE_REQUEST);
+        }
+        return this;
+    }
+
+    public static FieldSelection current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+                : (FieldSelection) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static Field findField(Class<?> type, String name) throws InputInvalidException {
+        try {
+            return type.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new InputInvalidException("Field không hợp lệ: " + name + ". Các field hợp lệ: "
+                    + Arrays.stream(type.getDeclaredFields()).map(Field::getName).collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static Class<?> elementType(Field field) throws InputInvalidException {
+        if (List.class.isAssignableFrom(field.getType())
+                && field.getGenericType() instanceof ParameterizedType parameterized) {
+            Type element = parameterized.getActualTypeArguments()[0];
+            // Chỉ DTO có @JsonFilter mới lọc được field con (List<String> images thì không)
+            if (element instanceof Class<?> elementClass && elementClass.isAnnotationPresent(JsonFilter.class)) {
+                return elementClass;
+            }
+        }
+        throw new InputInvalidException("Field " + field.getName() + " không có field con");
+    }
+}
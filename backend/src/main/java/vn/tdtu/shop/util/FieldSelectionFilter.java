@@ -0,0 +1,35 @@
+package vn.tdtu.shop.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+// Bộ lọc Jackson cho @JsonFilter(FieldSelection.FILTER_ID): bỏ các field không có trong fields= của request hiện tại.
+// Ngoài request hoặc request không có fields= thì ghi đủ field (ProductResponseCache, export... không bị ảnh hưởng).
+public class FieldSelectionFilter extends SimpleBeanPropertyFilter {
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+            throws Exception {
+        FieldSelection selection = FieldSelection.current();
+        if (selection == null || selection.includes(prefixOf(pojo, selection, gen), writer.getName())) {
+            writer.serializeAsField(pojo, gen, provider);
+        } else if (!gen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, gen, provider);
+        }
+    }
+
+    // Đối tượng gốc -> ""; phần tử của một danh sách lồng -> tên field chứa danh sách đó (vd. "items")
+    private String prefixOf(Object pojo, FieldSelection selection, JsonGenerator gen) {
+        if (selection.getRootType() != null && selection.getRootType().isInstance(pojo)) {
+            return "";
+        }
+        JsonStreamContext context = gen.getOutputContext().getParent();
+        while (context != null && context.getCurrentName() == null) {
+            context = context.getParent();
+        }
+        return context == null ? "" : context.getCurrentName();
+    }
+}
@@ -0,0 +1,17 @@
+package vn.tdtu.shop.util.annotation;
+
+import org.hibernate.annotations.IdGeneratorType;
+import vn.tdtu.shop.util.id.SnowflakeIdGenerator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Thay cho @GeneratedValue khi cần sinh id không phụ thuộc DB (nhiều instance ghi song song).
+// Id dạng snowflake lớn hơn 2^53 nên client JavaScript cần nhận id dưới dạng chuỗi.
+@IdGeneratorType(SnowflakeIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface SnowflakeId {
+}
@@ -0,0 +1,15 @@
+package vn.tdtu.shop.util.constant;
+
+// Cấu hình chung cho @TableGenerator của các entity: mỗi bảng một dòng trong id_sequences
+public final class IdSequence {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "seq_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // Mỗi lần Hibernate chỉ cập nhật id_sequences một lần cho 50 id, các insert còn lại không cần round trip
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdSequence() {
+    }
+}
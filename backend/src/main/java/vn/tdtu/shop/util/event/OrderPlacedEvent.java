@@ -0,0 +1,16 @@
+package vn.tdtu.shop.util.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+
+    private final Long orderId;
+
+    // id sản phẩm -> số lượng trong đơn
+    private final Map<Long, Integer> quantities;
+}
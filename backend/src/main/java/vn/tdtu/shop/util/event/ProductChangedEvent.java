@@ -0,0 +1,36 @@
+package vn.tdtu.shop.util.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import vn.tdtu.shop.util.request.ProductDTO;
+
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Long productId;
+    private final ChangeType type;
+
+    // null khi sản phẩm bị xóa
+    private final ProductDTO product;
+
+    // Category / brand trước khi cập nhật, để cache theo lát dữ liệu xóa được cả lát cũ; chỉ có khi UPDATED
+    private final String previousCategory;
+    private final String previousBrand;
+
+    public static ProductChangedEvent created(ProductDTO product) {
+        return new ProductChangedEvent(product.getId(), ChangeType.CREATED, product, null, null);
+    }
+
+    public static ProductChangedEvent updated(ProductDTO product, String previousCategory, String previousBrand) {
+        return new ProductChangedEvent(product.getId(), ChangeType.UPDATED, product, previousCategory, previousBrand);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, ChangeType.DELETED, null, null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package vn.tdtu.shop.util.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Một event cho cả lần import thay vì một ProductChangedEvent mỗi dòng:
+// các index trong bộ nhớ dựng lại một lần, các cache danh sách xóa một lần
+@Getter
+@AllArgsConstructor
+public class ProductsImportedEvent {
+
+    // id các sản phẩm đã được tạo (đã commit)
+    private final List<Long> productIds;
+}
@@ -0,0 +1,76 @@
+package vn.tdtu.shop.util.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+import vn.tdtu.shop.util.annotation.SnowflakeId;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+// 41 bit thời gian (ms từ EPOCH) | 10 bit worker | 12 bit sequence.
+// Worker id lấy từ spring.jpa.properties.shop.id.worker-id, mỗi instance phải khác nhau.
+public class SnowflakeIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String WORKER_ID_SETTING = "shop.id.worker-id";
+
+    // 2025-01-01T00:00:00Z
+    private static final long EPOCH = 1735689600000L;
+    private static final int WORKER_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, GeneratorCreationContext context) {
+        this(context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(WORKER_ID_SETTING, StandardConverters.INTEGER, 0));
+    }
+
+    public SnowflakeIdGenerator(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException(WORKER_ID_SETTING + " phải nằm trong khoảng 0.." + MAX_WORKER_ID);
+        }
+        this.workerId = workerId;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return nextId();
+    }
+
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis();
+        // Đồng hồ bị chỉnh lùi: tiếp tục dùng mốc cũ thay vì sinh id trùng
+        if (timestamp < lastTimestamp) {
+            timestamp = lastTimestamp;
+        }
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Hết 4096 id trong 1 ms, chờ sang ms tiếp theo
+                while (timestamp <= lastTimestamp) {
+                    timestamp = System.currentTimeMillis();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
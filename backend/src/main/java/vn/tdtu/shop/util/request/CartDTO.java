@@ -1,13 +1,16 @@
 package vn.tdtu.shop.util.request;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.tdtu.shop.util.FieldSelection;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartDTO {
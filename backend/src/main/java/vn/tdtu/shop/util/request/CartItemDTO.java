@@ -2,13 +2,17 @@ package vn.tdtu.shop.util.request;
 
 import java.math.BigDecimal;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.tdtu.shop.util.FieldSelection;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartItemDTO {
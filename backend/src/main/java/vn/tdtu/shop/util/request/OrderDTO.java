@@ -1,6 +1,8 @@
 package vn.tdtu.shop.util.request;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
+import vn.tdtu.shop.util.FieldSelection;
 import vn.tdtu.shop.util.constant.OrderStatus;
 
 import java.math.BigDecimal;
@@ -8,6 +10,7 @@ import java.time.Instant;
 import java.util.List;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 public class OrderDTO {
     private Long id;
     private Long userId;
@@ -4,14 +4,18 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.tdtu.shop.util.FieldSelection;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductDTO {
@@ -0,0 +1,19 @@
+package vn.tdtu.shop.util.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadCount;
+    private long evictionCount;
+    private double averageLoadPenaltyMs;
+}
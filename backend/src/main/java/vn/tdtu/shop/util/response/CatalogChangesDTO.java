@@ -0,0 +1,17 @@
+package vn.tdtu.shop.util.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+// Kết quả /api/products/changes: client upsert "products", gỡ "deleted", rồi lưu "version" cho lần gọi sau
+@Data
+public class CatalogChangesDTO {
+    private long version;
+    // true khi since cũ hơn thời gian giữ nhật ký xóa hoặc delta vượt product.sync.max-changes:
+    // client phải tải lại /api/products/snapshot
+    private boolean resetRequired;
+    private List<ProductSummaryDTO> products = new ArrayList<>();
+    private List<Long> deleted = new ArrayList<>();
+}
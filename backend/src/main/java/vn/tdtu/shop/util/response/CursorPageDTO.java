@@ -0,0 +1,23 @@
+package vn.tdtu.shop.util.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content = new ArrayList<>();
+    private int size;
+
+    // Truyền lại qua tham số cursor để lấy trang tiếp theo; null khi đã hết dữ liệu
+    private String nextCursor;
+    private boolean hasNext;
+
+    // Chỉ có giá trị khi client yêu cầu withTotal=true
+    private Long totalElements;
+}
@@ -0,0 +1,18 @@
+package vn.tdtu.shop.util.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+// Dữ liệu trang chủ /api/home, tính sẵn trong HomePageService
+@Data
+public class HomeDTO {
+    // Thời điểm build (epoch millis)
+    private long version;
+    private List<ProductSummaryDTO> newest = new ArrayList<>();
+    private List<ProductSummaryDTO> bestSellers = new ArrayList<>();
+    private List<ProductSummaryDTO> mostViewed = new ArrayList<>();
+    // Danh mục kèm số sản phẩm, sắp theo tên
+    private List<ProductFacetsDTO.FacetCountDTO> categories = new ArrayList<>();
+}
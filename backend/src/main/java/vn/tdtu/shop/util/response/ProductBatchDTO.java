@@ -0,0 +1,14 @@
+package vn.tdtu.shop.util.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import vn.tdtu.shop.util.request.ProductDTO;
+
+// Kết quả /api/products/batch: "products" theo đúng thứ tự ids gửi lên, id không tồn tại / đã xóa nằm trong "missing"
+@Data
+public class ProductBatchDTO {
+    private List<ProductDTO> products = new ArrayList<>();
+    private List<Long> missing = new ArrayList<>();
+}
@@ -0,0 +1,34 @@
+package vn.tdtu.shop.util.response;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class ProductFacetsDTO {
+    private List<FacetCountDTO> categories = new ArrayList<>();
+    private List<FacetCountDTO> brands = new ArrayList<>();
+    private List<PriceRangeDTO> priceRanges = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCountDTO {
+        private String value;
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceRangeDTO {
+        // from tính cả, to không tính; null nghĩa là không giới hạn
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
@@ -0,0 +1,29 @@
+package vn.tdtu.shop.util.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class ProductImportResultDTO {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long durationMs;
+    private double rowsPerSecond;
+
+    // Giới hạn số lỗi trả về để response không phình to khi file lỗi hàng loạt
+    private boolean errorsTruncated;
+    private List<RowErrorDTO> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDTO {
+        private long line;
+        private String message;
+    }
+}
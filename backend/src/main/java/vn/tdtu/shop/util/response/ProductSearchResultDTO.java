@@ -0,0 +1,15 @@
+package vn.tdtu.shop.util.response;
+
+import org.springframework.data.domain.Page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+    private Page<ProductSummaryDTO> products;
+    private ProductFacetsDTO facets;
+}
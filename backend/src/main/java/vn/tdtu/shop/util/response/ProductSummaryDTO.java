@@ -0,0 +1,20 @@
+package vn.tdtu.shop.util.response;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Dữ liệu rút gọn cho trang danh sách / tìm kiếm, chi tiết đầy đủ dùng ProductDTO
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String brand;
+    private String category;
+    private String image;
+}
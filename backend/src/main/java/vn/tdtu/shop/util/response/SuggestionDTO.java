@@ -0,0 +1,18 @@
+package vn.tdtu.shop.util.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    private String text;
+
+    // "product" hoặc "brand"
+    private String type;
+
+    // null với gợi ý thương hiệu
+    private Long productId;
+}
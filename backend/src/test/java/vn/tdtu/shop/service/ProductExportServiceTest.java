@@ -0,0 +1,154 @@
+package vn.tdtu.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.error.InputInvalidException;
+import vn.tdtu.shop.util.request.ProductDTO;
+
+// File export phải nhập lại được: ghi bằng ProductExportService, đọc bằng đúng RowSource của ProductImportService.
+// Cursor JDBC được giả lập (H2 không nhận fetchSize Integer.MIN_VALUE của chế độ streaming MySQL).
+class ProductExportServiceTest {
+
+    private static final Instant CREATED = Instant.parse("2024-03-01T08:30:00Z");
+
+    // Cột theo EXPORT_SQL: id, name, price, brand_id, category_id, short, detailed, sold, views, created, updated, url
+    private static final Object[][] ROWS = {
+            { 5L, "Tai nghe \"Pro\", bản 2", new BigDecimal("1990000.50"), 1, 2, "Chống ồn, pin 30h",
+                    "Dòng 1\nDòng 2\r\n\"Trích\"", 12L, 340L, CREATED, null, "https://cdn.example.com/5-a.jpg?w=1,h=2" },
+            { 5L, null, null, 0, 0, null, null, 0L, 0L, null, null, "https://cdn.example.com/5-b.jpg" },
+            { 6L, "Cáp USB-C", new BigDecimal("99000"), 1, 2, null, null, 0L, 0L, CREATED, CREATED, null },
+    };
+
+    private ObjectMapper objectMapper;
+    private ProductExportService exportService;
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Cùng cấu hình mặc định với ObjectMapper của Spring Boot (bỏ qua createdAt / updatedAt khi nhập)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        CatalogDictionary dictionary = mock(CatalogDictionary.class);
+        when(dictionary.brandName(1)).thenReturn("Sony");
+        when(dictionary.categoryName(2)).thenReturn("Âm thanh");
+        exportService = new ProductExportService(cursorOver(ROWS), objectMapper, dictionary);
+        importService = new ProductImportService(null, null, objectMapper, null, null, null, null);
+    }
+
+    @Test
+    void csvExportReadsBackThroughCsvImport() throws IOException, InputInvalidException {
+        String csv = export(ProductExportService.Format.CSV);
+
+        ProductImportService.RowSource source = importService.csvSource(new BufferedReader(new StringReader(csv)));
+        ProductImportService.ImportRow first = source.next();
+        ProductImportService.ImportRow second = source.next();
+        assertThat(source.next()).isNull();
+
+        assertThat(first.error).isNull();
+        assertThat(first.line).isEqualTo(2);
+        assertFirstProduct(first.product);
+        // Mô tả chi tiết có 2 xuống dòng nên sản phẩm sau bắt đầu ở dòng 5
+        assertThat(second.line).isEqualTo(5);
+        assertThat(second.product.getName()).isEqualTo("Cáp USB-C");
+        assertThat(second.product.getShortDescription()).isNull();
+        assertThat(second.product.getImages()).isEmpty();
+    }
+
+    @Test
+    void jsonLinesExportLineReadsBackThroughJsonImport() throws IOException {
+        String jsonl = export(ProductExportService.Format.JSONL);
+        String[] lines = jsonl.split("\n");
+        assertThat(lines).hasSize(2);
+
+        ProductImportService.RowSource source = importService.jsonLinesSource(
+                new BufferedReader(new StringReader(lines[0] + "\n")));
+        ProductImportService.ImportRow row = source.next();
+        assertThat(source.next()).isNull();
+
+        assertThat(row.error).isNull();
+        assertThat(row.line).isEqualTo(1);
+        assertFirstProduct(row.product);
+    }
+
+    private static void assertFirstProduct(ProductDTO product) {
+        assertThat(product.getId()).isNull();
+        assertThat(product.getName()).isEqualTo("Tai nghe \"Pro\", bản 2");
+        assertThat(product.getPrice()).isEqualByComparingTo("1990000.50");
+        assertThat(product.getBrand()).isEqualTo("Sony");
+        assertThat(product.getCategory()).isEqualTo("Âm thanh");
+        assertThat(product.getShortDescription()).isEqualTo("Chống ồn, pin 30h");
+        assertThat(product.getDetailedDescription()).isEqualTo("Dòng 1\nDòng 2\r\n\"Trích\"");
+        assertThat(product.getSoldQuantity()).isEqualTo(12L);
+        assertThat(product.getViews()).isEqualTo(340L);
+        assertThat(product.getImages()).containsExactly("https://cdn.example.com/5-a.jpg?w=1,h=2",
+                "https://cdn.example.com/5-b.jpg");
+    }
+
+    private String export(ProductExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, format);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // JdbcTemplate chạy ConnectionCallback trên một ResultSet duyệt qua rows
+    @SuppressWarnings("unchecked")
+    private static JdbcTemplate cursorOver(Object[][] rows) throws Exception {
+        List<Object[]> cursor = new ArrayList<>(List.of(rows));
+        int[] position = { -1 };
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(invocation -> ++position[0] < cursor.size());
+        when(rs.getLong(anyInt())).thenAnswer(invocation -> column(cursor, position, invocation.getArgument(0)));
+        when(rs.getInt(anyInt())).thenAnswer(invocation -> column(cursor, position, invocation.getArgument(0)));
+        when(rs.getString(anyInt())).thenAnswer(invocation -> column(cursor, position, invocation.getArgument(0)));
+        when(rs.getBigDecimal(anyInt())).thenAnswer(invocation -> column(cursor, position, invocation.getArgument(0)));
+        when(rs.getTimestamp(anyInt(), any(Calendar.class))).thenAnswer(invocation -> {
+            Instant value = column(cursor, position, invocation.getArgument(0));
+            return value == null ? null : Timestamp.from(value);
+        });
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(ps.executeQuery()).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+            position[0] = -1;
+            return invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection);
+        });
+        return jdbcTemplate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T column(List<Object[]> cursor, int[] position, int index) {
+        return (T) cursor.get(position[0])[index - 1];
+    }
+}
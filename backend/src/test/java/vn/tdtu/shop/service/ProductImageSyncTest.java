@@ -0,0 +1,107 @@
+package vn.tdtu.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import vn.tdtu.shop.domain.Image;
+import vn.tdtu.shop.domain.Product;
+
+// Đếm câu lệnh ghi (INSERT / UPDATE / DELETE theo entity) qua Hibernate Statistics khi sửa danh sách ảnh
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductImageSyncTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        Product product = new Product();
+        product.setName("iPhone 15");
+        product.setPrice(new BigDecimal("20000000"));
+        product.setBrandId(1);
+        product.setCategoryId(1);
+        product.setViews(0L);
+        product.setSoldQuantity(0L);
+        ProductService.syncImages(product, List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg"));
+        productId = entityManager.persistAndFlush(product).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    void unchangedListWritesNothing() {
+        sync(List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg"));
+
+        assertWrites(0, 0, 0);
+        assertStored("a.jpg", "b.jpg", "c.jpg", "d.jpg");
+    }
+
+    @Test
+    void appendInsertsOnlyTheNewImage() {
+        sync(List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg", "e.jpg"));
+
+        assertWrites(1, 0, 0);
+        assertStored("a.jpg", "b.jpg", "c.jpg", "d.jpg", "e.jpg");
+    }
+
+    @Test
+    void removingTheFirstImageDeletesOnlyThatRow() {
+        sync(List.of("b.jpg", "c.jpg", "d.jpg"));
+
+        assertWrites(0, 0, 1);
+        assertStored("b.jpg", "c.jpg", "d.jpg");
+        assertThat(entityManager.find(Product.class, productId).getPrimaryImageUrl()).isEqualTo("b.jpg");
+    }
+
+    @Test
+    void insertingAtTheHeadDoesNotRewriteLaterRows() {
+        sync(List.of("z.jpg", "a.jpg", "b.jpg", "c.jpg", "d.jpg"));
+
+        assertWrites(1, 0, 0);
+        assertStored("z.jpg", "a.jpg", "b.jpg", "c.jpg", "d.jpg");
+    }
+
+    @Test
+    void movingOneImageUpdatesOnlyThatRow() {
+        sync(List.of("a.jpg", "c.jpg", "d.jpg", "b.jpg"));
+
+        assertWrites(0, 1, 0);
+        assertStored("a.jpg", "c.jpg", "d.jpg", "b.jpg");
+    }
+
+    private void sync(List<String> urls) {
+        Product product = entityManager.find(Product.class, productId);
+        product.getImages().size();
+        statistics.clear();
+        ProductService.syncImages(product, urls);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void assertWrites(long inserts, long updates, long deletes) {
+        String image = Image.class.getName();
+        assertThat(statistics.getEntityStatistics(image).getInsertCount()).as("image inserts").isEqualTo(inserts);
+        assertThat(statistics.getEntityStatistics(image).getUpdateCount()).as("image updates").isEqualTo(updates);
+        assertThat(statistics.getEntityStatistics(image).getDeleteCount()).as("image deletes").isEqualTo(deletes);
+    }
+
+    private void assertStored(String... urls) {
+        List<String> stored = entityManager.find(Product.class, productId).getImages().stream()
+                .map(Image::getUrl).toList();
+        assertThat(stored).containsExactly(urls);
+    }
+}
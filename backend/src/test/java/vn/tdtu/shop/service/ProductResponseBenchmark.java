@@ -0,0 +1,165 @@
+package vn.tdtu.shop.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import vn.tdtu.shop.domain.Product;
+import vn.tdtu.shop.service.dictionary.CatalogDictionary;
+import vn.tdtu.shop.util.FieldSelection;
+import vn.tdtu.shop.util.FieldSelectionFilter;
+import vn.tdtu.shop.util.response.RestResponse;
+
+// So sánh chi tiết sản phẩm khi cache miss (mapToDTO + bọc RestResponse + Jackson) với cache hit của
+// ProductResponseCache (chỉ ghi mảng byte đã serialize). Không cần DB, không thuộc mvn test:
+// mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+// java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ProductResponseBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductResponseBenchmark {
+
+    // độ dài detailedDescription: mô tả ngắn và một trang mô tả đầy đủ
+    @Param({ "200", "4000" })
+    private int descriptionLength;
+
+    private ProductService productService;
+    private ObjectMapper objectMapper;
+    private Product product;
+    private List<String> images;
+    private ProductResponseCache.EncodedResponse cached;
+
+    @Setup
+    public void setup() {
+        // Từ điển không có DB: id chưa biết được "đọc bổ sung" từ stub một lần rồi giữ trong bộ nhớ như thật
+        JdbcTemplate dictionaryTable = new JdbcTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                return (List<T>) List.of(sql.contains("brands") ? "Apple" : "Điện thoại");
+            }
+        };
+        CatalogDictionary catalogDictionary = new CatalogDictionary(dictionaryTable, null, null);
+        productService = new ProductService(null, null, null, null, null, null, null, null, null, null,
+                catalogDictionary, null, null);
+
+        // Cấu hình như ObjectMapper của Spring Boot (JacksonConfig đăng ký filter fields=)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider()
+                        .addFilter(FieldSelection.FILTER_ID, new FieldSelectionFilter())
+                        .setFailOnUnknownId(false))
+                .build();
+
+        product = new Product();
+        product.setId(1234567L);
+        product.setName("iPhone 15 Pro Max 256GB - Titan tự nhiên");
+        product.setPrice(new BigDecimal("29990000.00"));
+        product.setBrandId(3);
+        product.setCategoryId(1);
+        product.setViews(15234L);
+        product.setSoldQuantity(812L);
+        product.setShortDescription("Chip A17 Pro, khung titan, camera 48MP, USB-C.");
+        product.setDetailedDescription(text(descriptionLength));
+        images = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            images.add("http://localhost:8080/uploads/products/1234567-" + i + ".jpg");
+        }
+
+        ProductResponseCache responseCache = new ProductResponseCache(objectMapper, 64L * 1024 * 1024, 300);
+        cached = responseCache.encode(productService.mapToDTO(product, images));
+    }
+
+    // Cache miss: như ProductController trả ProductDTO qua FormatRestResponse và MappingJackson2HttpMessageConverter
+    @Benchmark
+    public BufferedResponse mapAndSerialize() throws Exception {
+        BufferedResponse response = new BufferedResponse();
+        RestResponse<Object> envelope = new RestResponse<>();
+        envelope.setStatusCode(200);
+        envelope.setMessage("CALL API SUCCESS");
+        envelope.setData(productService.mapToDTO(product, images));
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), envelope);
+        return response;
+    }
+
+    // Cache hit, client không nhận gzip
+    @Benchmark
+    public BufferedResponse writeCachedBytes() throws Exception {
+        BufferedResponse response = new BufferedResponse();
+        cached.writeTo(null, response);
+        return response;
+    }
+
+    // Cache hit, gửi bản gzip đã nén sẵn (ở đây gzip-min-bytes = 0 nên luôn có bản nén)
+    @Benchmark
+    public BufferedResponse writeCachedGzipBytes() throws Exception {
+        BufferedResponse response = new BufferedResponse();
+        cached.writeTo("gzip, deflate, br", response);
+        return response;
+    }
+
+    private static String text(int length) {
+        String sentence = "Màn hình Super Retina XDR 6,7 inch, tần số quét 120Hz, pin dùng cả ngày. ";
+        StringBuilder builder = new StringBuilder(length + sentence.length());
+        while (builder.length() < length) {
+            builder.append(sentence);
+        }
+        return builder.substring(0, length);
+    }
+
+    // Output stream của MockHttpServletResponse ghi từng byte một, làm lệch kết quả; ở đây ghi cả mảng như Tomcat
+    public static class BufferedResponse extends MockHttpServletResponse {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8 * 1024);
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                body.write(bytes, offset, length);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
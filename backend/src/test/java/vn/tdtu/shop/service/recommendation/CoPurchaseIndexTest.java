@@ -0,0 +1,139 @@
+package vn.tdtu.shop.service.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import vn.tdtu.shop.util.constant.OrderStatus;
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+
+// Quét lịch sử trên H2 nhúng chỉ gồm hai bảng mà truy vấn bootstrap cần
+class CoPurchaseIndexTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, status INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE order_items (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "order_id BIGINT NOT NULL, product_id BIGINT NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void bootstrapMergesRangesAndSkipsCancelledOrders() throws InterruptedException {
+        // Khoảng 2 đơn / luồng: cặp (1, 2) nằm ở cả ba khoảng
+        order(1, OrderStatus.DELIVERED, 1, 2);
+        order(2, OrderStatus.DELIVERED, 1, 3);
+        order(3, OrderStatus.DELIVERED, 1, 2, 3);
+        order(4, OrderStatus.CANCELLED, 1, 4);
+        order(5, OrderStatus.PENDING, 2, 1);
+
+        CoPurchaseIndex index = new CoPurchaseIndex(jdbcTemplate, 20, 2, 2);
+        index.bootstrap();
+
+        assertThat(index.partnersOf(1L, 10)).containsExactly(2L, 3L);
+        assertThat(index.partnersOf(2L, 10)).containsExactly(1L, 3L);
+        assertThat(index.partnersOf(4L, 10)).isEmpty();
+    }
+
+    @Test
+    void duplicateRowsInOneOrderCountOnce() throws InterruptedException {
+        order(1, OrderStatus.DELIVERED, 1, 2, 2, 1);
+        order(2, OrderStatus.DELIVERED, 1, 3);
+        order(3, OrderStatus.DELIVERED, 1, 3);
+
+        CoPurchaseIndex index = new CoPurchaseIndex(jdbcTemplate, 20, 1, 100);
+        index.bootstrap();
+
+        // (1, 2) chỉ một đơn dù có hai dòng mỗi bên, nên xếp sau (1, 3) có hai đơn
+        assertThat(index.partnersOf(1L, 10)).containsExactly(3L, 2L);
+        assertThat(index.partnersOf(2L, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void largeOrderIsCappedAtMaxItemsPerOrder() throws InterruptedException {
+        order(1, OrderStatus.DELIVERED, LongStream.rangeClosed(1, 60).toArray());
+
+        CoPurchaseIndex index = new CoPurchaseIndex(jdbcTemplate, 100, 1, 100);
+        index.bootstrap();
+
+        // Chỉ 50 sản phẩm đầu được ghép cặp, mỗi sản phẩm với 49 sản phẩm còn lại
+        long indexed = LongStream.rangeClosed(1, 60).filter(id -> !index.partnersOf(id, 100).isEmpty()).count();
+        assertThat(indexed).isEqualTo(50);
+        LongStream.rangeClosed(1, 60).mapToObj(id -> index.partnersOf(id, 100)).filter(partners -> !partners.isEmpty())
+                .forEach(partners -> assertThat(partners).hasSize(49));
+    }
+
+    @Test
+    void ordersCoveredByBootstrapAreNotCountedAgain() throws InterruptedException {
+        order(1, OrderStatus.DELIVERED, 1, 2);
+        order(2, OrderStatus.DELIVERED, 1, 3);
+
+        CoPurchaseIndex index = new CoPurchaseIndex(jdbcTemplate, 20, 1, 100);
+        // Trước khi bootstrap chạy, mọi event đều bị bỏ qua vì lịch sử sẽ được quét sau
+        index.onOrderPlaced(placed(7, 1, 4));
+        index.bootstrap();
+
+        // Event của đơn đã nằm trong lần quét (commit muộn) không được cộng thêm
+        index.onOrderPlaced(placed(2, 1, 3));
+        index.onOrderPlaced(placed(2, 1, 3));
+        assertThat(index.partnersOf(1L, 10)).containsExactly(2L, 3L);
+
+        // Đơn sau mốc quét được cộng: (1, 3) lên 2 đơn và vượt (1, 2)
+        index.onOrderPlaced(placed(3, 1, 3));
+        assertThat(index.partnersOf(1L, 10)).containsExactly(3L, 2L);
+        assertThat(index.partnersOf(4L, 10)).isEmpty();
+    }
+
+    @Test
+    void basketPartnersExcludeInputsAndBreakTiesById() throws InterruptedException {
+        CoPurchaseIndex index = new CoPurchaseIndex(jdbcTemplate, 20, 1, 100);
+        index.bootstrap();
+
+        index.onOrderPlaced(placed(1, 1, 2, 9));
+        index.onOrderPlaced(placed(2, 1, 7));
+        index.onOrderPlaced(placed(3, 2, 5));
+        index.onOrderPlaced(placed(4, 2, 9));
+        index.onOrderPlaced(placed(5, 1, 6));
+
+        // 9: một đơn chung với 1 và hai đơn chung với 2 -> 3; 5, 6, 7 đều 1 đơn -> xếp theo id
+        assertThat(index.partnersOf(List.of(1L, 2L), 10)).containsExactly(9L, 5L, 6L, 7L);
+        assertThat(index.partnersOf(List.of(1L, 2L), 2)).containsExactly(9L, 5L);
+        assertThat(index.partnersOf(List.of(1L, 2L), 10)).doesNotContain(1L, 2L);
+        assertThat(index.partnersOf(List.of(8L), 10)).isEmpty();
+    }
+
+    private void order(long orderId, OrderStatus status, long... productIds) {
+        jdbcTemplate.update("INSERT INTO orders (id, status) VALUES (?, ?)", orderId, status.ordinal());
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO order_items (order_id, product_id) VALUES (?, ?)", orderId, productId);
+        }
+    }
+
+    private static OrderPlacedEvent placed(long orderId, long... productIds) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (long productId : productIds) {
+            quantities.put(productId, 1);
+        }
+        return new OrderPlacedEvent(orderId, quantities);
+    }
+}
@@ -0,0 +1,99 @@
+package vn.tdtu.shop.service.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+
+    @Test
+    void growsPastResizeThresholdWithoutLosingEntries() {
+        // expectedSize 1 -> 4 ô, ngưỡng resize 2: 10.000 key đi qua nhiều lần rehash
+        LongIntHashMap map = new LongIntHashMap(1);
+        int n = 10_000;
+        for (int i = 1; i <= n; i++) {
+            map.addTo(i * 31L, i);
+        }
+        for (int i = 1; i <= n; i += 2) {
+            map.addTo(i * 31L, 1);
+        }
+
+        assertThat(map.size()).isEqualTo(n);
+        for (int i = 1; i <= n; i++) {
+            assertThat(map.get(i * 31L)).isEqualTo(i % 2 == 1 ? i + 1 : i);
+        }
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach((key, value) -> assertThat(seen.put(key, value)).isNull());
+        assertThat(seen).hasSize(n);
+    }
+
+    @Test
+    void collidingKeysProbeToTheirOwnSlots() {
+        // Map mặc định có 16 ô (ngưỡng resize 9): chọn 6 key có cùng ô đầu theo hàm mix hiện tại
+        List<Long> colliding = new ArrayList<>();
+        int home = slot(1L, 16);
+        for (long key = 1; colliding.size() < 6; key++) {
+            if (slot(key, 16) == home) {
+                colliding.add(key);
+            }
+        }
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 0; i < colliding.size(); i++) {
+            map.addTo(colliding.get(i), i + 1);
+        }
+        map.addTo(colliding.get(3), 10);
+        map.addTo(colliding.get(5), -6);
+
+        assertThat(map.size()).isEqualTo(6);
+        assertThat(map.get(colliding.get(0))).isEqualTo(1);
+        assertThat(map.get(colliding.get(3))).isEqualTo(14);
+        assertThat(map.get(colliding.get(5))).isZero();
+        // Key chưa có nhưng trùng ô đầu phải dò hết dãy rồi trả 0
+        long absent = colliding.get(5) + 1;
+        while (slot(absent, 16) != home) {
+            absent++;
+        }
+        assertThat(map.get(absent)).isZero();
+
+        // Rehash giữa chừng dãy dò vẫn giữ đúng giá trị
+        for (long key = 1_000; key < 1_010; key++) {
+            map.addTo(key, 1);
+        }
+        for (int i = 0; i < colliding.size(); i++) {
+            assertThat(map.get(colliding.get(i))).isEqualTo(i == 3 ? 14 : i == 5 ? 0 : i + 1);
+        }
+        assertThat(map.size()).isEqualTo(16);
+    }
+
+    @Test
+    void keyZeroIsRejectedAndReadsAsAbsent() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(5L, 3);
+
+        assertThatThrownBy(() -> map.addTo(0L, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.get(0L)).isZero();
+        assertThat(map.size()).isEqualTo(1);
+        List<Long> keys = new ArrayList<>();
+        map.forEach((key, value) -> keys.add(key));
+        assertThat(keys).containsExactly(5L);
+    }
+
+    @Test
+    void missingKeyReadsAsZero() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertThat(map.get(42L)).isZero();
+        assertThat(map.size()).isZero();
+    }
+
+    // Chép lại hàm mix của LongIntHashMap để dựng được key va chạm; đổi hàm mix thì test vẫn đúng, chỉ bớt va chạm
+    private static int slot(long key, int capacity) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (capacity - 1);
+    }
+}
@@ -0,0 +1,105 @@
+package vn.tdtu.shop.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+    @Test
+    void splitsAnExistingEdgeWhenKeysDiverge() {
+        PrefixTrie trie = new PrefixTrie(10);
+        PrefixTrie.Entry iphone = entry("iPhone", 1);
+        PrefixTrie.Entry ipad = entry("iPad", 2);
+        trie.insert("iphone", iphone, false);
+        // "iphone" -> "ip" -> {"hone", "ad"}
+        trie.insert("ipad", ipad, false);
+
+        assertThat(labels(trie.complete("i", 10))).containsExactly("iPad", "iPhone");
+        assertThat(labels(trie.complete("ip", 10))).containsExactly("iPad", "iPhone");
+        assertThat(labels(trie.complete("iph", 10))).containsExactly("iPhone");
+        assertThat(labels(trie.complete("ipa", 10))).containsExactly("iPad");
+        assertThat(trie.complete("ipx", 10)).isEmpty();
+        assertThat(trie.complete("iphones", 10)).isEmpty();
+    }
+
+    @Test
+    void keyThatIsAPrefixOfAnotherKeepsBothReachable() {
+        PrefixTrie trie = new PrefixTrie(10);
+        PrefixTrie.Entry galaxyS24 = entry("Galaxy S24", 5);
+        PrefixTrie.Entry galaxy = entry("Galaxy", 1);
+        trie.insert("galaxy s24", galaxyS24, false);
+        // Khóa ngắn hơn kết thúc giữa cạnh "galaxy s24": phải tách cạnh và gắn entry vào node giữa
+        trie.insert("galaxy", galaxy, false);
+
+        assertThat(labels(trie.complete("gal", 10))).containsExactly("Galaxy S24", "Galaxy");
+        assertThat(labels(trie.complete("galaxy", 10))).containsExactly("Galaxy S24", "Galaxy");
+        assertThat(labels(trie.complete("galaxy ", 10))).containsExactly("Galaxy S24");
+
+        trie.remove("galaxy s24", galaxyS24);
+        assertThat(labels(trie.complete("galaxy", 10))).containsExactly("Galaxy");
+        assertThat(trie.complete("galaxy s", 10)).isEmpty();
+
+        trie.remove("galaxy", galaxy);
+        assertThat(trie.complete("g", 10)).isEmpty();
+    }
+
+    @Test
+    void scoreChangeReordersTopKOfAncestors() {
+        PrefixTrie trie = new PrefixTrie(2);
+        PrefixTrie.Entry a = entry("apple a", 5);
+        PrefixTrie.Entry b = entry("apple b", 3);
+        PrefixTrie.Entry c = entry("apple c", 1);
+        trie.insert("apple a", a, false);
+        trie.insert("apple b", b, false);
+        trie.insert("apple c", c, false);
+        assertThat(labels(trie.complete("apple", 10))).containsExactly("apple a", "apple b");
+
+        c.addScore(10);
+        trie.refresh("apple c");
+
+        assertThat(labels(trie.complete("apple", 10))).containsExactly("apple c", "apple a");
+        assertThat(labels(trie.complete("a", 10))).containsExactly("apple c", "apple a");
+        assertThat(labels(trie.complete("", 10))).containsExactly("apple c", "apple a");
+    }
+
+    @Test
+    void bulkInsertMatchesIncrementalAfterRebuildTops() {
+        PrefixTrie incremental = new PrefixTrie(3);
+        PrefixTrie bulk = new PrefixTrie(3);
+        String[] keys = { "sony", "samsung", "sam", "xiaomi", "s" };
+        for (int i = 0; i < keys.length; i++) {
+            PrefixTrie.Entry entry = entry(keys[i], i);
+            incremental.insert(keys[i], entry, false);
+            bulk.insert(keys[i], entry, true);
+        }
+        bulk.rebuildTops();
+
+        for (String prefix : List.of("", "s", "sa", "sam", "so", "x")) {
+            assertThat(labels(bulk.complete(prefix, 10))).as(prefix)
+                    .isEqualTo(labels(incremental.complete(prefix, 10)));
+        }
+        assertThat(labels(bulk.complete("s", 10))).containsExactly("s", "sam", "samsung");
+    }
+
+    @Test
+    void sameEntryUnderSeveralKeysAppearsOnce() {
+        PrefixTrie trie = new PrefixTrie(10);
+        PrefixTrie.Entry entry = entry("Apple iPhone 15", 1);
+        trie.insert("apple iphone 15", entry, false);
+        trie.insert("iphone 15", entry, false);
+        trie.insert("15", entry, false);
+
+        assertThat(trie.complete("", 10)).containsExactly(entry);
+    }
+
+    private static PrefixTrie.Entry entry(String label, long score) {
+        return new PrefixTrie.Entry(label, "product", null, score);
+    }
+
+    private static List<String> labels(List<PrefixTrie.Entry> entries) {
+        return entries.stream().map(PrefixTrie.Entry::getLabel).toList();
+    }
+}
@@ -0,0 +1,103 @@
+package vn.tdtu.shop.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import vn.tdtu.shop.util.event.OrderPlacedEvent;
+import vn.tdtu.shop.util.event.ProductChangedEvent;
+import vn.tdtu.shop.util.request.ProductDTO;
+import vn.tdtu.shop.util.response.SuggestionDTO;
+
+// Chỉ đi qua các listener, không gọi rebuild() nên không cần repository / từ điển
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester(null, null, 10);
+    }
+
+    @Test
+    void removingTheLastProductOfABrandRemovesTheBrand() {
+        created(1L, "Galaxy S24", "Samsung", 10);
+        created(2L, "Galaxy A55", "Samsung", 4);
+        assertThat(brands("sam")).containsExactly("Samsung");
+
+        suggester.onProductChanged(ProductChangedEvent.deleted(1L));
+        assertThat(brands("sam")).containsExactly("Samsung");
+        assertThat(texts("galaxy")).containsExactly("Galaxy A55");
+
+        suggester.onProductChanged(ProductChangedEvent.deleted(2L));
+        assertThat(suggester.suggest("sam", 10)).isEmpty();
+        assertThat(suggester.suggest("galaxy", 10)).isEmpty();
+    }
+
+    @Test
+    void brandScoreFollowsRemovedProducts() {
+        created(1L, "Xperia 1", "Sony", 8);
+        created(2L, "Xperia 10", "Sony", 1);
+        created(3L, "Galaxy S24", "Samsung", 5);
+        assertThat(brands("s")).containsExactly("Sony", "Samsung");
+
+        // Sony còn 1 (bỏ 8 của sản phẩm đã xóa), xuống sau Samsung 5
+        suggester.onProductChanged(ProductChangedEvent.deleted(1L));
+        assertThat(brands("s")).containsExactly("Samsung", "Sony");
+    }
+
+    @Test
+    void orderReordersProductsAndBrands() {
+        created(1L, "Xperia 1", "Sony", 2);
+        created(2L, "Galaxy S24", "Samsung", 5);
+        assertThat(brands("s")).containsExactly("Samsung", "Sony");
+
+        suggester.onOrderPlaced(new OrderPlacedEvent(100L, Map.of(1L, 4)));
+
+        assertThat(brands("s")).containsExactly("Sony", "Samsung");
+        // Từ giữa tên cũng là điểm bắt đầu gợi ý, điểm mới phải thấy ở mọi key
+        assertThat(texts("1")).containsExactly("Xperia 1");
+        assertThat(texts("")).isEmpty();
+    }
+
+    @Test
+    void updateMovesProductToTheNewBrand() {
+        created(1L, "Pixel 9", "Google", 3);
+        ProductDTO renamed = product(1L, "Pixel 9 Pro", "Alphabet", 3);
+        suggester.onProductChanged(ProductChangedEvent.updated(renamed, "Điện thoại", "Google"));
+
+        assertThat(suggester.suggest("goo", 10)).isEmpty();
+        assertThat(brands("alp")).containsExactly("Alphabet");
+        assertThat(texts("pixel")).containsExactly("Pixel 9 Pro");
+    }
+
+    private void created(Long id, String name, String brand, long sold) {
+        suggester.onProductChanged(ProductChangedEvent.created(product(id, name, brand, sold)));
+    }
+
+    private static ProductDTO product(Long id, String name, String brand, long sold) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setBrand(brand);
+        dto.setCategory("Điện thoại");
+        dto.setPrice(BigDecimal.TEN);
+        dto.setSoldQuantity(sold);
+        return dto;
+    }
+
+    private List<String> brands(String query) {
+        return suggester.suggest(query, 10).stream().filter(s -> "brand".equals(s.getType()))
+                .map(SuggestionDTO::getText).toList();
+    }
+
+    private List<String> texts(String query) {
+        return suggester.suggest(query, 10).stream().filter(s -> "product".equals(s.getType()))
+                .map(SuggestionDTO::getText).toList();
+    }
+}
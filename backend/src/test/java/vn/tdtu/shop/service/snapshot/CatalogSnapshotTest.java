@@ -0,0 +1,117 @@
+package vn.tdtu.shop.service.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsAllFields() throws IOException {
+        CatalogSnapshot snapshot = write(42L, writer -> {
+            writer.add(5, "Điện thoại Samsung Galaxy S24 – bản 256GB", new BigDecimal("18990000.50"), 3, 7,
+                    "http://localhost:8080/uploads/ảnh-1.jpg");
+            writer.add(9, "日本語の名前 😀", new BigDecimal("-12.345"), Integer.MAX_VALUE, 0, "b.jpg");
+        });
+
+        assertThat(snapshot.getVersion()).isEqualTo(42L);
+        assertThat(snapshot.size()).isEqualTo(2);
+
+        int first = snapshot.find(5);
+        assertThat(snapshot.id(first)).isEqualTo(5);
+        assertThat(snapshot.name(first)).isEqualTo("Điện thoại Samsung Galaxy S24 – bản 256GB");
+        assertThat(snapshot.price(first)).isEqualTo(new BigDecimal("18990000.50"));
+        assertThat(snapshot.brandId(first)).isEqualTo(3);
+        assertThat(snapshot.categoryId(first)).isEqualTo(7);
+        assertThat(snapshot.image(first)).isEqualTo("http://localhost:8080/uploads/ảnh-1.jpg");
+
+        int second = snapshot.find(9);
+        assertThat(snapshot.name(second)).isEqualTo("日本語の名前 😀");
+        assertThat(snapshot.price(second)).isEqualTo(new BigDecimal("-12.345"));
+        assertThat(snapshot.brandId(second)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(snapshot.categoryId(second)).isZero();
+        assertThat(snapshot.image(second)).isEqualTo("b.jpg");
+    }
+
+    @Test
+    void keepsNullAndEmptyStringsApart() throws IOException {
+        CatalogSnapshot snapshot = write(1L, writer -> {
+            writer.add(1, null, BigDecimal.ONE, 1, 1, null);
+            writer.add(2, "", BigDecimal.ONE, 1, 1, "");
+            writer.add(3, null, BigDecimal.ONE, 1, 1, "only-image.jpg");
+        });
+
+        assertThat(snapshot.name(snapshot.find(1))).isNull();
+        assertThat(snapshot.image(snapshot.find(1))).isNull();
+        assertThat(snapshot.name(snapshot.find(2))).isEmpty();
+        assertThat(snapshot.image(snapshot.find(2))).isEmpty();
+        // image nằm sau name null (độ dài -1): offset phải tính đúng
+        assertThat(snapshot.name(snapshot.find(3))).isNull();
+        assertThat(snapshot.image(snapshot.find(3))).isEqualTo("only-image.jpg");
+    }
+
+    @Test
+    void findsEveryIdAndRejectsMissingOnesAcrossBoundaries() throws IOException {
+        // Quá 1024 bản ghi để index trong Writer phải nới mảng; id cách nhau 2 để có khe ở giữa
+        int count = 2500;
+        CatalogSnapshot snapshot = write(1L, writer -> {
+            for (int i = 0; i < count; i++) {
+                writer.add(10 + 2L * i, "p" + i, BigDecimal.valueOf(i), i, i, null);
+            }
+        });
+
+        for (int i = 0; i < count; i++) {
+            int offset = snapshot.find(10 + 2L * i);
+            assertThat(offset).isNotNegative();
+            assertThat(snapshot.name(offset)).isEqualTo("p" + i);
+        }
+        assertThat(snapshot.find(9)).isEqualTo(-1);
+        assertThat(snapshot.find(11)).isEqualTo(-1);
+        assertThat(snapshot.find(10 + 2L * count)).isEqualTo(-1);
+        assertThat(snapshot.find(Long.MIN_VALUE)).isEqualTo(-1);
+        assertThat(snapshot.find(Long.MAX_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    void handlesEmptyAndSingleEntrySnapshots() throws IOException {
+        CatalogSnapshot empty = write(1L, writer -> {
+        });
+        assertThat(empty.size()).isZero();
+        assertThat(empty.find(1)).isEqualTo(-1);
+
+        CatalogSnapshot single = write(2L, writer -> writer.add(Long.MAX_VALUE, "max", BigDecimal.ZERO, 0, 0, null));
+        assertThat(single.name(single.find(Long.MAX_VALUE))).isEqualTo("max");
+        assertThat(single.find(Long.MAX_VALUE - 1)).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsIdsOutOfOrder() throws IOException {
+        try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(dir.resolve("unordered.snapshot"), 1L)) {
+            writer.add(5, "a", BigDecimal.ONE, 1, 1, null);
+            assertThatThrownBy(() -> writer.add(5, "b", BigDecimal.ONE, 1, 1, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private CatalogSnapshot write(long version, WriterBody body) throws IOException {
+        Path file = dir.resolve("catalog." + version + ".snapshot");
+        try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(file, version)) {
+            body.accept(writer);
+            writer.finish();
+        }
+        return CatalogSnapshot.open(file);
+    }
+
+    private interface WriterBody {
+        void accept(CatalogSnapshot.Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,83 @@
+package vn.tdtu.shop.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// Mọi thứ CsvWriter ghi ra phải được CsvReader đọc lại đúng từng field
+class CsvWriterTest {
+
+    @Test
+    void roundTripsQuotesCommasAndNewlines() throws IOException {
+        List<List<String>> records = List.of(
+                List.of("id", "name", "detailedDescription", "images"),
+                List.of("1", "Tai nghe \"Pro\" 2", "Dòng 1\nDòng 2\r\nDòng 3", "a.jpg"),
+                List.of("2", "Sạc 20W, USB-C", "\"", "x,1.jpg|y\"2\".jpg|z\n3.jpg"),
+                List.of("3", "  có khoảng trắng  ", ",,,", "\r"),
+                List.of("4", "\"\"", "kết thúc bằng xuống dòng\n", "a.jpg|b.jpg|c.jpg"));
+
+        assertThat(roundTrip(records)).isEqualTo(records);
+    }
+
+    @Test
+    void nullAndEmptyFieldsReadBackAsEmpty() throws IOException {
+        List<List<String>> written = List.of(
+                Arrays.asList("1", null, "", "x"),
+                Arrays.asList("", "", ""),
+                Arrays.asList((String) null));
+
+        assertThat(roundTrip(written)).containsExactly(
+                List.of("1", "", "", "x"),
+                List.of("", "", ""),
+                List.of(""));
+    }
+
+    @Test
+    void multiValueImagesCellSplitsBackToTheSameUrls() throws IOException {
+        List<String> images = List.of("https://cdn.example.com/a.jpg?w=100,h=100", "https://cdn.example.com/b \"2\".jpg",
+                "https://cdn.example.com/c.jpg");
+        List<List<String>> records = List.of(List.of("7", String.join("|", images)));
+
+        List<String> cell = roundTrip(records).get(0);
+        assertThat(cell).hasSize(2);
+        assertThat(cell.get(1).split("\\|")).containsExactlyElementsOf(images);
+    }
+
+    @Test
+    void lineNumberCountsNewlinesInsideQuotedFields() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord(List.of("a", "b\nc\nd"));
+        writer.writeRecord(List.of("e"));
+
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        assertThat(reader.getLineNumber()).isEqualTo(1);
+        reader.readRecord();
+        assertThat(reader.getLineNumber()).isEqualTo(4);
+        assertThat(reader.readRecord()).containsExactly("e");
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    private static List<List<String>> roundTrip(List<List<String>> records) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (List<String> record : records) {
+            writer.writeRecord(record);
+        }
+
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        List<List<String>> read = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            read.add(record);
+        }
+        return read;
+    }
+}
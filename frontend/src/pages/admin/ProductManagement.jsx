@@ -71,7 +71,8 @@ const ProductManagement = () => {
   const fetchProducts = async (page = 0, rowsPerPage = 10, filters = {}) => {
     setLoading(true);
     try {
-      const response = await axiosInstance.get('/api/products/search', {
+      // Bảng quản trị cần views / soldQuantity / category nên dùng endpoint trả ProductDTO đầy đủ
+      const response = await axiosInstance.get('/api/admin/products', {
         params: {
           category: filters.category || undefined,
           brand: filters.brand || undefined,
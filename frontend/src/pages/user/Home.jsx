@@ -21,14 +21,17 @@ const Home = () => {
 
     const fetchProducts = async () => {
         try {
-            const response = await axios.get(`${import.meta.env.VITE_API_URL}/api/products/search`, {
-                params: { page: 0, size: 20 },
-            });
-            const products = response.data.data.content;
-            const sortedNewest = [...products].sort((a, b) => a.views - b.views).slice(0, 4);
-            const sortedBestSelling = [...products].sort((a, b) => b.soldQuantity - a.soldQuantity).slice(0, 4);
-            setNewestProducts(sortedNewest);
-            setBestSellingProducts(sortedBestSelling);
+            // Danh sách trả về bản rút gọn (không có views / soldQuantity) nên sắp xếp ở server
+            const [newest, bestSelling] = await Promise.all([
+                axios.get(`${import.meta.env.VITE_API_URL}/api/products/search`, {
+                    params: { page: 0, size: 4, sort: 'createdAt,desc' },
+                }),
+                axios.get(`${import.meta.env.VITE_API_URL}/api/products/search`, {
+                    params: { page: 0, size: 4, sort: 'soldQuantity,desc' },
+                }),
+            ]);
+            setNewestProducts(newest.data.data.content);
+            setBestSellingProducts(bestSelling.data.data.content);
             setLoading(false);
         } catch (error) {
             console.log('Lỗi khi lấy sản phẩm:', error.response || error.message);
@@ -92,7 +95,7 @@ const Home = () => {
                                 )}
                                 <img
                                     alt={product.name || 'Sản phẩm'}
-                                    src={getImageUrl(product.images?.[0])}
+                                    src={getImageUrl(product.image)}
                                     className="w-full h-full object-contain rounded-md"
                                     onError={(e) => { e.target.src = 'https://via.placeholder.com/150?text=No+Image'; }}
                                 />
@@ -155,7 +158,7 @@ const Home = () => {
                                 )}
                                 <img
                                     alt={product.name || 'Sản phẩm'}
-                                    src={getImageUrl(product.images?.[0])}
+                                    src={getImageUrl(product.image)}
                                     className="w-full h-full object-contain rounded-md"
                                     onError={(e) => { e.target.src = 'https://via.placeholder.com/150?text=No+Image'; }}
                                 />
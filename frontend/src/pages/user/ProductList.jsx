@@ -284,7 +284,7 @@ const ProductList = () => {
                                     )}
                                     <img
                                         alt={product.name || 'Sản phẩm'}
-                                        src={getImageUrl(product.images?.[0])}
+                                        src={getImageUrl(product.image)}
                                         className="w-full h-full object-contain rounded-md"
                                         onError={(e) => { e.target.src = 'https://via.placeholder.com/150?text=No+Image'; }}
                                     />